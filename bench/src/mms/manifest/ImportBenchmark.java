@@ -0,0 +1,82 @@
+package mms.manifest;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.storage.Warehouse;
+
+/**
+ * Benchmarks importing a text export of a given number of books, clothes,
+ * laptops and pieces of furniture, owned by a thousand different owners, into
+ * an empty warehouse. The export is held in memory so that only parsing and
+ * packing are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportBenchmark {
+    /**
+     * number of lines in the export
+     */
+    @Param({"10000", "1000000"})
+    public int items;
+
+    /**
+     * number of different owners of the items
+     */
+    private static final int OWNERS = 1000;
+
+    private String export;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        for (int count = 0; count < items; count++) {
+            String owner = "Owner " + count % OWNERS;
+            switch (count % 4) {
+                case 0:
+                    builder.append("0,Book,").append(owner).append(",\"Title, ")
+                            .append(count % 5000).append("\",false\n");
+                    break;
+                case 1:
+                    builder.append("0,Clothes,").append(owner)
+                            .append(",MEDIUM,SHIRT\n");
+                    break;
+                case 2:
+                    builder.append("0,Laptop,").append(owner).append(',')
+                            .append(count % 10).append('\n');
+                    break;
+                default:
+                    builder.append("0,Furniture,CHAIR\n");
+                    break;
+            }
+        }
+        export = builder.toString();
+    }
+
+    @Benchmark
+    public Warehouse importExport()
+            throws IOException {
+        Warehouse warehouse = new Warehouse(1.0E9, 1.0E9, 1.0E9);
+        new ManifestImporter(warehouse, reject -> {
+            throw new IllegalStateException(reject.toString());
+        }).importFrom(new StringReader(export));
+        return warehouse;
+    }
+}
\ No newline at end of file
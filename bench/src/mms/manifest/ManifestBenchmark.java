@@ -0,0 +1,100 @@
+package mms.manifest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.furniture.Furniture;
+import mms.furniture.FurnitureType;
+import mms.personal.Book;
+import mms.personal.ClotheType;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+import mms.storage.Storage;
+import mms.storage.Warehouse;
+import mms.utility.Size;
+
+/**
+ * Benchmarks saving and loading the binary manifest of a warehouse holding a
+ * given number of books, clothes, laptops and pieces of furniture, owned by a
+ * thousand different owners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManifestBenchmark {
+    /**
+     * number of items in the warehouse
+     */
+    @Param({"10000", "1000000"})
+    public int items;
+
+    /**
+     * number of different owners of the items
+     */
+    private static final int OWNERS = 1000;
+
+    private Warehouse warehouse;
+    private Path path;
+
+    @Setup
+    public void setUp()
+            throws IOException, PackingException {
+        warehouse = new Warehouse(1.0E9, 1.0E9, 1.0E9);
+        for (int count = 0; count < items; count++) {
+            String owner = "Owner " + count % OWNERS;
+            switch (count % 4) {
+                case 0:
+                    warehouse.pack(new Book(owner, "Title " + count % 5000, false));
+                    break;
+                case 1:
+                    warehouse.pack(new Clothes(owner, Size.MEDIUM, ClotheType.SHIRT));
+                    break;
+                case 2:
+                    warehouse.pack(new Laptop(owner, count % 10));
+                    break;
+                default:
+                    warehouse.pack(Furniture.of(FurnitureType.CHAIR));
+                    break;
+            }
+        }
+        path = Files.createTempFile("manifest", ".mms");
+        BinaryManifest.save(warehouse, path);
+    }
+
+    @TearDown
+    public void tearDown()
+            throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public void save()
+            throws IOException {
+        BinaryManifest.save(warehouse, path);
+    }
+
+    @Benchmark
+    public Storage load()
+            throws IOException {
+        return BinaryManifest.load(path);
+    }
+}
\ No newline at end of file
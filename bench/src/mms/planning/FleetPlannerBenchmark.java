@@ -0,0 +1,81 @@
+package mms.planning;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.furniture.Furniture;
+import mms.furniture.FurnitureType;
+import mms.personal.Book;
+import mms.personal.ClotheType;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+import mms.utility.Packable;
+
+import static mms.utility.Size.*;
+
+/**
+ * Benchmarks planning the loads of a fleet of moving trucks for a move with a
+ * given number of items, a fifth of which are furniture, across three kinds
+ * of truck.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetPlannerBenchmark {
+    /**
+     * number of items in the move
+     */
+    @Param({"1000", "50000"})
+    public int items;
+
+    private FleetPlanner planner;
+    private List<Packable> move;
+
+    @Setup
+    public void setUp() {
+        planner = new FleetPlanner(List.of(
+                new TruckSpec(1000, 1000, 1500, SMALL),
+                new TruckSpec(1500, 1500, 2500, MEDIUM),
+                new TruckSpec(2500, 2500, 4000, LARGE)));
+        FurnitureType[] furnitureTypes = FurnitureType.values();
+        move = new ArrayList<>();
+        for (int count = 0; count < items; count++) {
+            switch (count % 5) {
+                case 0:
+                    move.add(Furniture.of(
+                            furnitureTypes[count % furnitureTypes.length]));
+                    break;
+                case 1:
+                    move.add(new Laptop("Owner", count));
+                    break;
+                case 2:
+                    move.add(new Clothes("Owner", MEDIUM, ClotheType.SHIRT));
+                    break;
+                default:
+                    move.add(new Book("Owner", "Title " + count, false));
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public FleetPlan plan() {
+        return planner.plan(move);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.personal.Clothes;
+import mms.utility.Packable;
+import mms.utility.Size;
+
+import static mms.personal.ClotheType.SOCKS;
+
+/**
+ * Benchmarks Bag.pack and Bag.unpack on a bag of each size that is one item
+ * short of full.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BagBenchmark {
+    /**
+     * size of the bag
+     */
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Size size;
+
+    private Bag bag;
+    private Clothes socks;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        bag = new Bag(1000, 1000, 1000, size);
+        socks = new Clothes("Owner", Size.SMALL, SOCKS);
+        for (int count = 0; count < bag.getCapacity() - 1; count++) {
+            bag.pack(socks);
+        }
+    }
+
+    /**
+     * Packs an item and unpacks the first item, leaving the bag with the same
+     * number of items.
+     */
+    @Benchmark
+    public Packable packUnpack()
+            throws PackingException {
+        bag.pack(socks);
+        return bag.unpack();
+    }
+}
\ No newline at end of file
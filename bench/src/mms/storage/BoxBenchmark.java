@@ -0,0 +1,62 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.personal.Laptop;
+import mms.utility.Packable;
+import mms.utility.Size;
+
+/**
+ * Benchmarks Box.pack and Box.unpack on a box of each size that is one item
+ * short of full.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoxBenchmark {
+    /**
+     * size of the box
+     */
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Size size;
+
+    private Box box;
+    private Laptop laptop;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        box = new Box(1000, 1000, 1000, size, "Comment");
+        laptop = new Laptop("Owner", 2);
+        for (int count = 0; count < box.getCapacity() - 1; count++) {
+            box.pack(laptop);
+        }
+    }
+
+    /**
+     * Packs a fragile item and unpacks the first item, leaving the box with
+     * the same number of items.
+     */
+    @Benchmark
+    public Packable packUnpack()
+            throws PackingException {
+        box.pack(laptop);
+        return box.unpack();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.furniture.Furniture;
+import mms.utility.Packable;
+
+import static mms.furniture.FurnitureType.*;
+
+/**
+ * Benchmarks asking whether a chair fits into a moving truck half full of
+ * furniture: the feasibility queries against packing the chair and unpacking
+ * it again to undo the probe.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CanPackBenchmark {
+    private MovingTruck truck;
+    private Packable chair;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        truck = new MovingTruck(10000, 10000, 100000);
+        chair = Furniture.of(CHAIR);
+        for (int count = 0; count < truck.getCapacity() / 2; count++) {
+            truck.pack(chair);
+        }
+    }
+
+    @Benchmark
+    public boolean canPack() {
+        return truck.canPack(chair);
+    }
+
+    @Benchmark
+    public int countFits() {
+        return truck.countFits(chair);
+    }
+
+    @Benchmark
+    public boolean packAndUndo() {
+        try {
+            truck.pack(chair);
+        } catch (PackingException exception) {
+            return false;
+        }
+        truck.unpackLast();
+        return true;
+    }
+}
\ No newline at end of file
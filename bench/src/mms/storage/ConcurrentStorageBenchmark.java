@@ -0,0 +1,103 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.personal.Book;
+import mms.utility.Packable;
+
+/**
+ * Benchmarks the throughput of packing and unpacking through a concurrent
+ * storage as the number of loader threads grows.
+ * <p>
+ * Run with the JMH thread count option to measure scaling, for example
+ * {@code -t 1}, {@code -t 2}, {@code -t 4} and so on up to the number of
+ * cores. Loaders sharing one storage take turns, so their combined
+ * throughput stays roughly flat; loaders each packing their own storage do
+ * not contend, so their combined throughput grows with the thread count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentStorageBenchmark {
+    /**
+     * number of items each depot is filled to before measuring
+     */
+    private static final int FILL = 1000;
+
+    /**
+     * A concurrent depot shared by every loader thread.
+     */
+    @State(Scope.Benchmark)
+    public static class Shared {
+        private ConcurrentStorage<Depot> depot;
+
+        @Setup
+        public void setUp()
+                throws PackingException {
+            depot = createDepot();
+        }
+    }
+
+    /**
+     * A concurrent depot used by a single loader thread.
+     */
+    @State(Scope.Thread)
+    public static class Own {
+        private ConcurrentStorage<Depot> depot;
+
+        @Setup
+        public void setUp()
+                throws PackingException {
+            depot = createDepot();
+        }
+    }
+
+    @Benchmark
+    public Packable sharedStorage(Shared shared)
+            throws PackingException {
+        return cycle(shared.depot);
+    }
+
+    @Benchmark
+    public Packable storagePerThread(Own own)
+            throws PackingException {
+        return cycle(own.depot);
+    }
+
+    /**
+     * Unpacks an item from the depot and packs it again.
+     */
+    private static Packable cycle(ConcurrentStorage<Depot> depot)
+            throws PackingException {
+        Packable item = depot.unpack();
+        depot.pack(item);
+        return item;
+    }
+
+    /**
+     * Creates a concurrent depot with room to spare, filled with books.
+     */
+    private static ConcurrentStorage<Depot> createDepot()
+            throws PackingException {
+        ConcurrentStorage<Depot> depot =
+                new ConcurrentStorage<>(new Depot(2 * FILL));
+        for (int count = 0; count < FILL; count++) {
+            depot.pack(new Book("Owner " + count, "Title " + count, false));
+        }
+        return depot;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.personal.Book;
+import mms.utility.Packable;
+
+/**
+ * Benchmarks reading the deep item count and volume of a nested manifest from
+ * the totals kept by Storage, against walking the nested storages to sum
+ * them, and the cost of packing into the deepest storage while the totals are
+ * carried up.
+ * <p>
+ * Every storage in the manifest holds 1000 books and, above the deepest
+ * level, two nested storages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepTotalsBenchmark {
+    /**
+     * number of levels of nested storage
+     */
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    /**
+     * number of books in each storage
+     */
+    private static final int ITEMS_PER_STORAGE = 1000;
+
+    /**
+     * number of nested storages in each storage above the deepest level
+     */
+    private static final int CHILDREN = 2;
+
+    /**
+     * width and height of a book, the largest of its dimensions, in cm
+     */
+    private static final int BOOK_SIDE = 20;
+
+    private Depot manifest;
+    private Depot deepest;
+    private Book book;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        manifest = createStorage(depth);
+        book = new Book("Owner", "Title", false);
+    }
+
+    @Benchmark
+    public double cachedTotals() {
+        return manifest.getDeepItemCount() + manifest.getDeepItemsVolume();
+    }
+
+    @Benchmark
+    public double walkedTotals() {
+        return walkCount(manifest) + walkVolume(manifest);
+    }
+
+    /**
+     * Packs a book into the deepest storage and unpacks it again, carrying
+     * each change up through every level.
+     */
+    @Benchmark
+    public Packable packUnpackDeepest()
+            throws PackingException {
+        deepest.pack(book);
+        return deepest.unpackLast();
+    }
+
+    /**
+     * Returns the number of items other than storages within the storage.
+     */
+    private static long walkCount(Storage storage) {
+        long count = 0;
+        for (Packable item : storage.elementsView()) {
+            count += item instanceof Storage nested ? walkCount(nested) : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the volume of the items other than storages within the storage.
+     */
+    private static double walkVolume(Storage storage) {
+        double volume = 0;
+        for (Packable item : storage.elementsView()) {
+            volume += item instanceof Storage nested
+                    ? walkVolume(nested)
+                    : item.getVolume();
+        }
+        return volume;
+    }
+
+    /**
+     * Creates a storage of the given depth, sized so that its books and
+     * nested storages fit, remembering the last storage created at the
+     * deepest level.
+     */
+    private Depot createStorage(int levels)
+            throws PackingException {
+        // room for one more book in each storage
+        Depot storage = new Depot(ITEMS_PER_STORAGE + CHILDREN + 1,
+                sideOf(levels));
+        for (int count = 0; count < ITEMS_PER_STORAGE; count++) {
+            storage.pack(new Book("Owner " + count, "Title " + count, false));
+        }
+        if (levels > 1) {
+            for (int count = 0; count < CHILDREN; count++) {
+                storage.pack(createStorage(levels - 1));
+            }
+        } else {
+            deepest = storage;
+        }
+        return storage;
+    }
+
+    /**
+     * Returns the side length needed for a storage of the given depth.
+     */
+    private static double sideOf(int levels) {
+        double side = (ITEMS_PER_STORAGE + 1.0) * BOOK_SIDE + 1;
+        if (levels > 1) {
+            side += CHILDREN * sideOf(levels - 1);
+        }
+        return side;
+    }
+}
\ No newline at end of file
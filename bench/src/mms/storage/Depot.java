@@ -0,0 +1,52 @@
+package mms.storage;
+
+import mms.utility.Packable;
+import mms.utility.Size;
+
+/**
+ * A storage with a given capacity and no practical dimension limits, used by
+ * the benchmarks to hold far more items than a truck, box or bag can.
+ * A depot is packable so that depots can be nested inside each other.
+ */
+public class Depot extends Storage implements Packable {
+    /**
+     * maximum number of items in this depot
+     */
+    private int capacity;
+
+    /**
+     * Creates an empty depot that holds up to the given number of items.
+     * @param capacity maximum number of items in the depot
+     */
+    public Depot(int capacity) {
+        this(capacity, 1.0E12);
+    }
+
+    /**
+     * Creates an empty cube-shaped depot that holds up to the given number of
+     * items.
+     * @param capacity maximum number of items in the depot
+     * @param side width, height and length of the depot in cm
+     */
+    public Depot(int capacity, double side) {
+        super(side, side, side, Size.LARGE);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the capacity given when the depot was created.
+     * @return capacity of this depot
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the multiplier of a depot.
+     * The capacity of a depot does not depend on its multiplier.
+     * @return multiplier of this depot
+     */
+    protected int getMultiplier() {
+        return 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package mms.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.personal.Book;
+
+/**
+ * Compares how long it takes to drain the elements of a storage First In,
+ * First Out from an ArrayList (the previous element store), from the
+ * RingBuffer now used by Storage and from the PagedStore used by Warehouse.
+ * <p>
+ * Removing the first element of an ArrayList shifts every remaining element,
+ * so a full drain grows with the square of the number of elements. The
+ * RingBuffer drain should grow linearly. The ArrayList drain of 1,000,000
+ * elements takes several minutes per iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DrainBenchmark {
+    /**
+     * number of elements to drain
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Object> arrayList;
+    private RingBuffer<Object> ringBuffer;
+    private PagedStore pagedStore;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        arrayList = new ArrayList<>();
+        ringBuffer = new RingBuffer<>();
+        pagedStore = new PagedStore();
+        Book book = new Book("Owner", "Title", false);
+        for (int count = 0; count < size; count++) {
+            arrayList.add(Integer.valueOf(count));
+            ringBuffer.addLast(Integer.valueOf(count));
+            pagedStore.addLast(book);
+        }
+    }
+
+    @Benchmark
+    public List<Object> drainArrayList() {
+        while (!arrayList.isEmpty()) {
+            arrayList.remove(0);
+        }
+        return arrayList;
+    }
+
+    @Benchmark
+    public RingBuffer<Object> drainRingBuffer() {
+        while (!ringBuffer.isEmpty()) {
+            ringBuffer.removeFirst();
+        }
+        return ringBuffer;
+    }
+
+    @Benchmark
+    public PagedStore drainPagedStore() {
+        while (!pagedStore.isEmpty()) {
+            pagedStore.removeFirst();
+        }
+        return pagedStore;
+    }
+}
\ No newline at end of file
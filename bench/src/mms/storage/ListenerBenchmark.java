@@ -0,0 +1,68 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.personal.Book;
+import mms.utility.Packable;
+
+/**
+ * Benchmarks packing and unpacking an item with no listener, with a listener
+ * that does nothing, and with an asynchronous listener whose consumer does
+ * nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+    /**
+     * listener registered with the storage
+     */
+    @Param({"none", "sync", "async"})
+    public String listener;
+
+    private Depot depot;
+    private Packable book;
+    private AsyncStorageListener async;
+
+    @Setup
+    public void setUp() {
+        depot = new Depot(10, 1.0E9);
+        book = new Book("Owner", "Title", false);
+        if (listener.equals("sync")) {
+            depot.addListener(new StorageListener() { });
+        } else if (listener.equals("async")) {
+            async = new AsyncStorageListener(batch -> { }, 4096);
+            depot.addListener(async);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (async != null) {
+            depot.removeListener(async);
+            async.close();
+        }
+    }
+
+    @Benchmark
+    public Packable packAndUnpack() {
+        depot.tryPack(book);
+        return depot.unpack();
+    }
+}
\ No newline at end of file
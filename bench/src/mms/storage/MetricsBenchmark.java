@@ -0,0 +1,61 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.personal.Book;
+import mms.utility.Packable;
+
+/**
+ * Benchmarks packing and unpacking an item with instrumentation off, and on
+ * with a given sampling period, where zero means off.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    /**
+     * number of calls for each call measured; zero for instrumentation off
+     */
+    @Param({"0", "1", "64"})
+    public int samplingPeriod;
+
+    private Depot depot;
+    private Packable book;
+
+    @Setup
+    public void setUp() {
+        depot = new Depot(10, 1.0E9);
+        book = new Book("Owner", "Title", false);
+        if (samplingPeriod > 0) {
+            StorageMetrics.enable(samplingPeriod);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        StorageMetrics.disable();
+        StorageMetrics.reset();
+    }
+
+    @Benchmark
+    public Packable packAndUnpack() {
+        depot.tryPack(book);
+        return depot.unpack();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.utility.Packable;
+import mms.utility.Size;
+
+import static mms.furniture.FurnitureType.CHAIR;
+
+/**
+ * Benchmarks MovingTruck.pack and MovingTruck.unpack on a truck of each size
+ * that is one item short of full.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovingTruckBenchmark {
+    /**
+     * size of the moving trucks
+     */
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Size size;
+
+    /**
+     * truck holding only personal items
+     */
+    private MovingTruck personalTruck;
+
+    /**
+     * truck holding personal items followed by furniture
+     */
+    private MovingTruck furnitureTruck;
+
+    private Book book;
+    private Furniture chair;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        personalTruck = new MovingTruck(1.0E6, 1.0E6, 1.0E6, size);
+        furnitureTruck = new MovingTruck(1.0E6, 1.0E6, 1.0E6, size);
+        book = new Book("Owner", "Title", false);
+        chair = new Furniture(CHAIR);
+
+        int capacity = personalTruck.getCapacity();
+        for (int count = 0; count < capacity - 1; count++) {
+            personalTruck.pack(book);
+        }
+        for (int count = 0; count < capacity / 2; count++) {
+            furnitureTruck.pack(book);
+        }
+        for (int count = capacity / 2; count < capacity - 1; count++) {
+            furnitureTruck.pack(chair);
+        }
+    }
+
+    /**
+     * Packs a personal item and unpacks the first personal item.
+     */
+    @Benchmark
+    public Packable packUnpackPersonal()
+            throws PackingException {
+        personalTruck.pack(book);
+        return personalTruck.unpack();
+    }
+
+    /**
+     * Packs a furniture item and unpacks it again, last in, first out.
+     */
+    @Benchmark
+    public Packable packUnpackFurniture()
+            throws PackingException {
+        furnitureTruck.pack(chair);
+        return furnitureTruck.unpack();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package mms.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.personal.Book;
+import mms.utility.Packable;
+
+/**
+ * Benchmarks packing a manifest all-or-nothing with Storage.packAll against
+ * calling Storage.pack for each item, catching each rejection and unpacking
+ * again if any item was rejected.
+ * <p>
+ * Each manifest holds 10,000 items, of which a given number are too large to
+ * fit and are spread evenly through the manifest. Both benchmarks leave the
+ * storage empty, so each invocation starts from the same state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackAllBenchmark {
+    /**
+     * number of items in the manifest that do not fit
+     */
+    @Param({"0", "100", "1000"})
+    public int rejected;
+
+    /**
+     * number of items in each manifest
+     */
+    private static final int MANIFEST = 10000;
+
+    /**
+     * width, height and length of the storage in cm
+     */
+    private static final double SIDE = 1.0E9;
+
+    private Depot depot;
+    private List<Packable> manifest;
+
+    @Setup
+    public void setUp() {
+        depot = new Depot(MANIFEST, SIDE);
+        // a depot larger than the storage on every side never fits
+        Packable tooLarge = new Depot(1, 2 * SIDE);
+        manifest = new ArrayList<>();
+        for (int count = 0; count < MANIFEST; count++) {
+            if (rejected > 0 && count % (MANIFEST / rejected) == 0) {
+                manifest.add(tooLarge);
+            } else {
+                manifest.add(new Book("Owner " + count, "Title " + count, false));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Integer> packAll() {
+        List<Integer> rejectedPositions = depot.packAll(manifest);
+        empty();
+        return rejectedPositions;
+    }
+
+    @Benchmark
+    public List<Integer> packEach() {
+        List<Integer> rejectedPositions = new ArrayList<>();
+        int packed = 0;
+        for (int position = 0; position < manifest.size(); position++) {
+            try {
+                depot.pack(manifest.get(position));
+                packed++;
+            } catch (PackingException e) {
+                rejectedPositions.add(position);
+            }
+        }
+        if (!rejectedPositions.isEmpty()) {
+            for (; packed > 0; packed--) {
+                depot.unpackLast();
+            }
+        }
+        empty();
+        return rejectedPositions;
+    }
+
+    /**
+     * Unpacks every item left in the depot.
+     */
+    private void empty() {
+        while (depot.unpack() != null) {
+            // unpack the next item
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package mms.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.personal.Book;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+import mms.utility.Packable;
+
+import static mms.personal.ClotheType.*;
+import static mms.utility.Size.*;
+
+/**
+ * Benchmarks placing a truckload of personal items with ExtremePointPlacement,
+ * directly and through a storage using the placement engine.
+ * <p>
+ * The items are placed in a 400 cm cube, about the volume of the storage area
+ * of a large moving truck, which the largest manifest nearly fills. Dividing
+ * the score by the number of items gives the average cost of placing one
+ * item, which should stay roughly flat as the number of items grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+    /**
+     * number of items to place
+     */
+    @Param({"1000", "4000", "8000"})
+    public int items;
+
+    /**
+     * width, height and length of the space in cm
+     */
+    private static final double SIDE = 400;
+
+    private List<Packable> manifest;
+
+    @Setup
+    public void setUp() {
+        manifest = new ArrayList<>();
+        for (int count = 0; count < items; count++) {
+            switch (count % 4) {
+                case 0:
+                    manifest.add(new Laptop("Owner " + count, 10));
+                    break;
+                case 1:
+                    manifest.add(new Clothes("Owner " + count, MEDIUM, SHIRT));
+                    break;
+                default:
+                    manifest.add(new Book("Owner " + count, "Title", false));
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public int placeAll() {
+        PlacementEngine engine = new ExtremePointPlacement(SIDE, SIDE, SIDE);
+        int placed = 0;
+        for (Packable item : manifest) {
+            Placement placement = engine.find(item);
+            if (placement != null) {
+                engine.occupy(placement);
+                placed++;
+            }
+        }
+        return placed;
+    }
+
+    @Benchmark
+    public List<Integer> packAllPlaced() {
+        Depot depot = new Depot(items, SIDE);
+        depot.setPlacementEngine(new ExtremePointPlacement(SIDE, SIDE, SIDE));
+        return depot.packAll(manifest);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package mms.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.personal.Book;
+
+/**
+ * Benchmarks Storage.toString(int) and Storage.render(Appendable, int) on a
+ * nested manifest.
+ * <p>
+ * Every storage in the manifest holds a number of books and, above the
+ * deepest level, two nested storages. A manifest of depth 4 with 10000 books
+ * per storage holds 150,000 books.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+    /**
+     * number of levels of nested storage
+     */
+    @Param({"1", "2", "4"})
+    public int depth;
+
+    /**
+     * number of books in each storage
+     */
+    @Param({"10", "1000", "10000"})
+    public int itemsPerStorage;
+
+    /**
+     * number of nested storages in each storage above the deepest level
+     */
+    private static final int CHILDREN = 2;
+
+    /**
+     * width and height of a book, the largest of its dimensions, in cm
+     */
+    private static final int BOOK_SIDE = 20;
+
+    private Depot manifest;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        manifest = createStorage(depth);
+    }
+
+    @Benchmark
+    public String toStringLevel() {
+        return manifest.toString(1);
+    }
+
+    @Benchmark
+    public void renderToWriter()
+            throws IOException {
+        try (Writer out = new BufferedWriter(Writer.nullWriter())) {
+            manifest.render(out, 1);
+        }
+    }
+
+    /**
+     * Creates a storage of the given depth, sized so that its books and
+     * nested storages fit.
+     */
+    private Depot createStorage(int levels)
+            throws PackingException {
+        Depot storage = new Depot(itemsPerStorage + CHILDREN,
+                sideOf(levels));
+        for (int count = 0; count < itemsPerStorage; count++) {
+            storage.pack(new Book("Owner " + count, "Title " + count, false));
+        }
+        if (levels > 1) {
+            for (int count = 0; count < CHILDREN; count++) {
+                storage.pack(createStorage(levels - 1));
+            }
+        }
+        return storage;
+    }
+
+    /**
+     * Returns the side length needed for a storage of the given depth.
+     */
+    private double sideOf(int levels) {
+        double side = (double) itemsPerStorage * BOOK_SIDE + 1;
+        if (levels > 1) {
+            side += CHILDREN * sideOf(levels - 1);
+        }
+        return side;
+    }
+}
\ No newline at end of file
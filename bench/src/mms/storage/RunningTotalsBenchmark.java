@@ -0,0 +1,87 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.personal.Book;
+import mms.utility.Packable;
+
+/**
+ * Regression benchmark for the running dimension totals of a storage: the
+ * cost of packing an item should stay flat as the storage fills up.
+ * <p>
+ * pack packs a book into a depot holding the given number of items and
+ * unpacks one again, checking the item against the running totals. The
+ * totals benchmark reads the running totals, and resum adds up the width,
+ * height and length of every element, as pack did before the totals were
+ * kept. The time of pack should not grow with occupancy, while resum grows
+ * linearly with it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunningTotalsBenchmark {
+    /**
+     * number of items in the storage before each operation
+     */
+    @Param({"10", "1000", "100000"})
+    public int occupancy;
+
+    private Depot depot;
+    private Book book;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        depot = new Depot(occupancy + 1);
+        book = new Book("Owner", "Title", false);
+        for (int count = 0; count < occupancy; count++) {
+            depot.pack(book);
+        }
+    }
+
+    /**
+     * Packs an item at the back of the storage and unpacks the item at the
+     * front, leaving the storage with the same number of items.
+     */
+    @Benchmark
+    public Packable pack()
+            throws PackingException {
+        depot.pack(book);
+        return depot.unpack();
+    }
+
+    @Benchmark
+    public long totals() {
+        return depot.getTotalItemsWidth() + depot.getTotalItemsHeight()
+                + depot.getTotalItemsLength();
+    }
+
+    @Benchmark
+    public long resum() {
+        long width = 0;
+        long height = 0;
+        long length = 0;
+        for (Packable element : depot.getElements()) {
+            width += (long) element.getWidth();
+            height += (long) element.getHeight();
+            length += (long) element.getLength();
+        }
+        return width + height + length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package mms.storage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.personal.Book;
+import mms.personal.Laptop;
+import mms.utility.Packable;
+
+/**
+ * Benchmarks Storage.pack, Storage.unpack and Storage.getElementsOfType on a
+ * storage holding a given number of items.
+ * <p>
+ * The benchmarks in this module are run with the JMH runner,
+ * org.openjdk.jmh.Main, given the names of the benchmarks to run, for example
+ * StorageBenchmark. Annotation processing must be enabled when compiling the
+ * bench module so that JMH can generate its benchmark classes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmark {
+    /**
+     * number of items in the storage before each operation
+     */
+    @Param({"10", "1000", "100000"})
+    public int occupancy;
+
+    /**
+     * one in every this many items packed in the storage is a laptop
+     */
+    private static final int LAPTOP_EVERY = 100;
+
+    private Depot depot;
+    private Book book;
+    private Laptop laptop;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        depot = new Depot(occupancy + 1);
+        book = new Book("Owner", "Title", false);
+        laptop = new Laptop("Owner", 2);
+        for (int count = 0; count < occupancy; count++) {
+            depot.pack(count % LAPTOP_EVERY == 0 ? laptop : book);
+        }
+    }
+
+    /**
+     * Packs an item at the back of the storage and unpacks the item at the
+     * front, leaving the storage with the same number of items.
+     */
+    @Benchmark
+    public Packable packUnpack()
+            throws PackingException {
+        depot.pack(book);
+        return depot.unpack();
+    }
+
+    @Benchmark
+    public List<Packable> getElementsOfTypeClass() {
+        return depot.getElementsOfType(Laptop.class);
+    }
+
+    @Benchmark
+    public List<Packable> getElementsOfTypeReference() {
+        return depot.getElementsOfType(laptop);
+    }
+}
\ No newline at end of file
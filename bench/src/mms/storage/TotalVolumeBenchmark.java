@@ -0,0 +1,79 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.furniture.Furniture;
+import mms.furniture.FurnitureType;
+import mms.personal.Book;
+import mms.personal.Laptop;
+import mms.utility.Packable;
+
+/**
+ * Benchmarks summing the volumes of the items in a storage from the dimension
+ * arrays kept by the storage, with Storage.getTotalItemsVolume, against
+ * calling getVolume on each item in turn.
+ * <p>
+ * The storage holds a mix of books, laptops and furniture, so calls to
+ * getVolume cannot all be inlined to the same method.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TotalVolumeBenchmark {
+    /**
+     * number of items in the storage
+     */
+    @Param({"1000", "100000"})
+    public int occupancy;
+
+    private Depot depot;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        depot = new Depot(occupancy);
+        for (int count = 0; count < occupancy; count++) {
+            switch (count % 3) {
+                case 0:
+                    depot.pack(new Book("Owner", "Title " + count, false));
+                    break;
+                case 1:
+                    depot.pack(new Laptop("Owner", count));
+                    break;
+                default:
+                    depot.pack(Furniture.of(FurnitureType.CHAIR));
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public double columns() {
+        return depot.getTotalItemsVolume();
+    }
+
+    @Benchmark
+    public double getters() {
+        double volume = 0;
+        for (Packable item : depot.elementsView()) {
+            volume += item.getVolume();
+        }
+        return volume;
+    }
+}
\ No newline at end of file
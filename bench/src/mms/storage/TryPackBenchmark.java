@@ -0,0 +1,74 @@
+package mms.storage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mms.exceptions.PackingException;
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.utility.Packable;
+
+import static mms.furniture.FurnitureType.*;
+
+/**
+ * Benchmarks probing whether items can be packed when every probe is
+ * rejected, as a planner trying candidate placements does: tryPack against
+ * pack with each rejection caught. Run with
+ * -jvmArgs -Dmms.exceptions.stackless=true to measure pack with the shared
+ * stackless exceptions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TryPackBenchmark {
+    private Bag bag;
+    private MovingTruck truck;
+    private Packable chair;
+    private Packable book;
+
+    @Setup
+    public void setUp()
+            throws PackingException {
+        bag = new Bag(1000, 1000, 1000);
+        truck = new MovingTruck(1000, 1000, 3000);
+        chair = Furniture.of(CHAIR);
+        book = new Book("Owner", "Title", false);
+        truck.pack(chair);
+    }
+
+    @Benchmark
+    public PackResult tryPackRejected() {
+        // furniture never fits in a bag, and books never after furniture
+        bag.tryPack(chair);
+        return truck.tryPack(book);
+    }
+
+    @Benchmark
+    public int packRejected() {
+        int rejected = 0;
+        try {
+            bag.pack(chair);
+        } catch (PackingException exception) {
+            rejected++;
+        }
+        try {
+            truck.pack(book);
+        } catch (PackingException exception) {
+            rejected++;
+        }
+        return rejected;
+    }
+}
\ No newline at end of file
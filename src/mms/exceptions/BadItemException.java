@@ -5,6 +5,12 @@ package mms.exceptions;
  * implementing class of Packable to a Storage class.
  */
 public class BadItemException extends PackingException {
+    /**
+     * shared instance without a stack trace
+     */
+    private static final BadItemException STACKLESS =
+            new BadItemException(null, false);
+
     /**
      * Constructs a normal BadItemException with no detail message.
      */
@@ -18,4 +24,27 @@ public class BadItemException extends PackingException {
     public BadItemException(String message) {
         super(message);
     }
+
+    /**
+     * Constructs a BadItemException with the given detail message, which
+     * records no suppressed exceptions and, if writableStackTrace is false, no
+     * stack trace.
+     * @param message detail message
+     * @param writableStackTrace false to create the exception without a stack
+     *     trace
+     */
+    protected BadItemException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
+
+    /**
+     * Returns the shared BadItemException without a stack trace or detail
+     * message, thrown for an item of the incorrect class when stackless
+     * exceptions are enabled.
+     * @return shared stackless BadItemException
+     * @see PackingException#isStackless()
+     */
+    public static BadItemException stackless() {
+        return STACKLESS;
+    }
 }
\ No newline at end of file
@@ -2,8 +2,22 @@ package mms.exceptions;
 
 /**
  * Exception thrown when an error occurs during the packing of Storage class.
+ * <p>
+ * Filling in the stack trace is most of the cost of creating an exception.
+ * When the system property "mms.exceptions.stackless" is set to true, storages
+ * report a rejected item by throwing a single shared instance of the exception
+ * for the reason, created without a stack trace, so that rejecting an item
+ * allocates nothing. Each subclass provides its shared instance through a
+ * static stackless() method. A stackless exception has no detail message and
+ * records no cause or suppressed exceptions.
  */
 public class PackingException extends Exception {
+    /**
+     * whether storages throw the shared stackless exceptions
+     */
+    private static final boolean STACKLESS =
+            Boolean.getBoolean("mms.exceptions.stackless");
+
     /**
      * Constructs a normal PackingException with no detail message.
      */
@@ -17,4 +31,27 @@ public class PackingException extends Exception {
     public PackingException(String message) {
         super(message);
     }
+
+    /**
+     * Constructs a PackingException with the given detail message, which
+     * records no suppressed exceptions and, if writableStackTrace is false,
+     * no stack trace.
+     * @param message detail message
+     * @param writableStackTrace false to create the exception without a stack
+     *     trace
+     */
+    protected PackingException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Returns whether storages report rejected items with the shared
+     * stackless exceptions, as set by the system property
+     * "mms.exceptions.stackless".
+     * @return true if the shared stackless exceptions are thrown; false if a
+     *     new exception is created for each rejected item
+     */
+    public static boolean isStackless() {
+        return STACKLESS;
+    }
 }
\ No newline at end of file
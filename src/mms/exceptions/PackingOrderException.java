@@ -5,6 +5,12 @@ package mms.exceptions;
  * order.
  */
 public class PackingOrderException extends PackingException {
+    /**
+     * shared instance without a stack trace
+     */
+    private static final PackingOrderException STACKLESS =
+            new PackingOrderException(null, false);
+
     /**
      * Constructs a normal PackingOrderException with no detail message.
      */
@@ -18,4 +24,28 @@ public class PackingOrderException extends PackingException {
     public PackingOrderException(String message) {
         super(message);
     }
+
+    /**
+     * Constructs a PackingOrderException with the given detail message, which
+     * records no suppressed exceptions and, if writableStackTrace is false, no
+     * stack trace.
+     * @param message detail message
+     * @param writableStackTrace false to create the exception without a stack
+     *     trace
+     */
+    protected PackingOrderException(String message,
+                                    boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
+
+    /**
+     * Returns the shared PackingOrderException without a stack trace or detail
+     * message, thrown for an item in the incorrect order when stackless
+     * exceptions are enabled.
+     * @return shared stackless PackingOrderException
+     * @see PackingException#isStackless()
+     */
+    public static PackingOrderException stackless() {
+        return STACKLESS;
+    }
 }
\ No newline at end of file
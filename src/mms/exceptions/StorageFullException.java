@@ -5,6 +5,12 @@ package mms.exceptions;
  * that particular storage unit can handle.
  */
 public class StorageFullException extends PackingException {
+    /**
+     * shared instance without a stack trace
+     */
+    private static final StorageFullException STACKLESS =
+            new StorageFullException(null, false);
+
     /**
      * Constructs a normal StorageFullException with no detail message.
      */
@@ -18,4 +24,27 @@ public class StorageFullException extends PackingException {
     public StorageFullException(String message) {
         super(message);
     }
+
+    /**
+     * Constructs a StorageFullException with the given detail message, which
+     * records no suppressed exceptions and, if writableStackTrace is false, no
+     * stack trace.
+     * @param message detail message
+     * @param writableStackTrace false to create the exception without a stack
+     *     trace
+     */
+    protected StorageFullException(String message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+    }
+
+    /**
+     * Returns the shared StorageFullException without a stack trace or detail
+     * message, thrown for an item that does not fit when stackless exceptions
+     * are enabled.
+     * @return shared stackless StorageFullException
+     * @see PackingException#isStackless()
+     */
+    public static StorageFullException stackless() {
+        return STACKLESS;
+    }
 }
\ No newline at end of file
@@ -4,17 +4,27 @@ import mms.utility.Packable;
 
 /**
  * Represents some household furniture that needs to be moved.
+ * <p>
+ * A piece of furniture is fully described by its type and never changes, so
+ * pieces of the same type can be shared, see of(FurnitureType).
  */
 public class Furniture extends Object implements Packable {
     /**
-     * furniture type of this furniture
+     * shared furniture of each type, indexed by the ordinal of the type
      */
-    private FurnitureType type;
+    private static final Furniture[] SHARED =
+            new Furniture[FurnitureType.values().length];
+
+    static {
+        for (FurnitureType type : FurnitureType.values()) {
+            SHARED[type.ordinal()] = new Furniture(type);
+        }
+    }
 
     /**
-     * conversion ratio for dimensions from metres to centimetres
+     * furniture type of this furniture
      */
-    private int conversionRatio = 100;
+    private final FurnitureType type;
 
     /**
      * Creates Furniture of the specified type.
@@ -25,6 +35,26 @@ public class Furniture extends Object implements Packable {
         this.type = type;
     }
 
+    /**
+     * Returns the shared furniture of the specified type.
+     * <p>
+     * The same instance is returned every time for the same type, so a storage
+     * holding thousands of chairs need only hold references to one object. A
+     * shared instance may be packed many times, into the same storage or into
+     * different storages, so furniture should not be told apart by identity
+     * when it comes from this method.
+     * @param type type of the furniture
+     * @return shared furniture of the given type
+     * @throws IllegalArgumentException if type is null
+     */
+    public static Furniture of(FurnitureType type)
+            throws IllegalArgumentException {
+        if (type == null) {
+            throw new IllegalArgumentException();
+        }
+        return SHARED[type.ordinal()];
+    }
+
     /**
      * Returns the type of the furniture.
      * @return type of this furniture
@@ -38,7 +68,7 @@ public class Furniture extends Object implements Packable {
      * @return width of this object
      */
     public double getWidth() {
-        return type.width * conversionRatio;
+        return type.widthInCm;
     }
 
     /**
@@ -46,7 +76,7 @@ public class Furniture extends Object implements Packable {
      * @return height of this object
      */
     public double getHeight() {
-        return type.height * conversionRatio;
+        return type.heightInCm;
     }
 
     /**
@@ -54,7 +84,15 @@ public class Furniture extends Object implements Packable {
      * @return length of this object
      */
     public double getLength() {
-        return type.length * conversionRatio;
+        return type.lengthInCm;
+    }
+
+    /**
+     * Returns the volume of the furniture in cm3.
+     * @return volume of this object
+     */
+    public double getVolume() {
+        return type.volumeInCm3;
     }
 
     /**
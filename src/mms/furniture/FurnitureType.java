@@ -11,6 +11,9 @@ package mms.furniture;
  *     DESK           1.2     2.0     1.0
  *     TABLE          3.0     5.0     1.0
  *     TELEVISION     1.3     0.75    0.1
+ * <p>
+ * The dimensions in centimetres, and the volume in cubic centimetres, are
+ * worked out once for each type when the enum is loaded.
  */
 public enum FurnitureType {
     /**
@@ -53,15 +56,40 @@ public enum FurnitureType {
      */
     public final double length;
 
+    /**
+     * width of this furniture type in cm
+     */
+    public final double widthInCm;
+
+    /**
+     * height of this furniture type in cm
+     */
+    public final double heightInCm;
+
+    /**
+     * length of this furniture type in cm
+     */
+    public final double lengthInCm;
+
+    /**
+     * volume of this furniture type in cm3
+     */
+    public final double volumeInCm3;
+
     /**
      * Creates FurnitureType of the specified width, height and length.
-     * @param width width of furniture type in cm
-     * @param height height of furniture type in cm
-     * @param length length of furniture type in cm
+     * @param width width of furniture type in metres
+     * @param height height of furniture type in metres
+     * @param length length of furniture type in metres
      */
     FurnitureType(double width, double height, double length) {
         this.width = width;
         this.height = height;
         this.length = length;
+        // 100 cm in a metre
+        widthInCm = width * 100;
+        heightInCm = height * 100;
+        lengthInCm = length * 100;
+        volumeInCm3 = widthInCm * heightInCm * lengthInCm;
     }
 }
\ No newline at end of file
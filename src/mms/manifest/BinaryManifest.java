@@ -0,0 +1,535 @@
+package mms.manifest;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import mms.exceptions.PackingException;
+import mms.furniture.Furniture;
+import mms.furniture.FurnitureType;
+import mms.personal.Book;
+import mms.personal.ClotheType;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+import mms.storage.Bag;
+import mms.storage.Box;
+import mms.storage.MovingTruck;
+import mms.storage.Storage;
+import mms.storage.Warehouse;
+import mms.utility.Packable;
+import mms.utility.Size;
+
+/**
+ * Saves a storage and everything packed inside it to a compact binary file,
+ * and loads it back.
+ * <p>
+ * A manifest file holds, in order:
+ *     the four bytes "MMS1",
+ *     a string table of every distinct owner, title and comment, each stored
+ *         once as its UTF-8 bytes, and
+ *     the storage, written as a record.
+ * A record starts with a one byte tag for its class (Book, Clothes, Laptop,
+ * Furniture, Box, Bag, MovingTruck or Warehouse) followed by the values needed
+ * to create it again. Strings are written as their position in the string
+ * table, and counts, lengths and positions as variable-length integers of
+ * seven bits per byte, so most take a single byte. A storage record ends with
+ * the number of items packed into it, followed by the record of each item in
+ * insertion order.
+ * <p>
+ * A manifest is loaded through a memory-mapped view of the file, decoding
+ * each record straight from the mapped bytes, and each item is packed again in
+ * its original order, so the loaded storage follows every packing rule and
+ * keeps every index and total that packing maintains. Furniture is loaded as
+ * the shared instance of its type, see Furniture.of(FurnitureType). An item
+ * packed more than once is saved, and loaded, as separate copies. The
+ * placement engine of a storage, and whether a box was marked fragile by
+ * items that have since been unpacked, are not saved.
+ */
+public class BinaryManifest {
+    /**
+     * first four bytes of every manifest file, "MMS1"
+     */
+    private static final int MAGIC = 0x4D4D5331;
+
+    /**
+     * tag of a book record
+     */
+    private static final byte BOOK = 1;
+    /**
+     * tag of a clothes record
+     */
+    private static final byte CLOTHES = 2;
+    /**
+     * tag of a laptop record
+     */
+    private static final byte LAPTOP = 3;
+    /**
+     * tag of a furniture record
+     */
+    private static final byte FURNITURE = 4;
+    /**
+     * tag of a box record
+     */
+    private static final byte BOX = 5;
+    /**
+     * tag of a bag record
+     */
+    private static final byte BAG = 6;
+    /**
+     * tag of a moving truck record
+     */
+    private static final byte MOVING_TRUCK = 7;
+    /**
+     * tag of a warehouse record
+     */
+    private static final byte WAREHOUSE = 8;
+
+    /**
+     * sizes, indexed by ordinal
+     */
+    private static final Size[] SIZES = Size.values();
+
+    /**
+     * clothes types, indexed by ordinal
+     */
+    private static final ClotheType[] CLOTHE_TYPES = ClotheType.values();
+
+    /**
+     * furniture types, indexed by ordinal
+     */
+    private static final FurnitureType[] FURNITURE_TYPES = FurnitureType.values();
+
+    /**
+     * Manifests are saved and loaded through the static methods only.
+     */
+    private BinaryManifest() {
+    }
+
+    /**
+     * Saves the storage and every item packed inside it, at any depth, to the
+     * given file, replacing the file if it exists.
+     * @param storage moving truck, warehouse, box or bag to save
+     * @param path file to save the manifest to
+     * @throws IllegalArgumentException if storage is null, or it or an item
+     *     packed inside it is of a class that cannot be saved
+     * @throws IOException if writing the file fails
+     */
+    public static void save(Storage storage, Path path)
+            throws IllegalArgumentException, IOException {
+        if (storage == null) {
+            throw new IllegalArgumentException();
+        }
+        Encoder records = new Encoder();
+        records.writeRoot(storage);
+
+        Encoder header = new Encoder();
+        header.writeInt(MAGIC);
+        header.writeVarint(records.strings.size());
+        for (String string : records.strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            header.writeVarint(bytes.length);
+            header.writeBytes(bytes);
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header.toBuffer(), records.toBuffer()};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+    }
+
+    /**
+     * Loads a storage and every item packed inside it from the given manifest
+     * file.
+     * @param path manifest file to load
+     * @return new storage holding new copies of the saved items
+     * @throws IOException if reading the file fails, or the file is not a
+     *     valid manifest
+     */
+    public static Storage load(Path path)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("manifest too large");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    0, channel.size());
+            try {
+                return new Decoder(buffer).readManifest();
+            } catch (BufferUnderflowException exception) {
+                throw new IOException("manifest truncated", exception);
+            }
+        }
+    }
+
+    /**
+     * Writes records into a growing array of bytes, collecting the strings
+     * they refer to into a string table.
+     */
+    private static class Encoder {
+        /**
+         * bytes written so far, followed by unused space
+         */
+        private byte[] bytes = new byte[1024];
+
+        /**
+         * number of bytes written
+         */
+        private int size = 0;
+
+        /**
+         * distinct strings referred to, in the order first seen
+         */
+        private List<String> strings = new ArrayList<>();
+
+        /**
+         * position of each string in the string table
+         */
+        private Map<String, Integer> stringPositions = new HashMap<>();
+
+        /**
+         * Writes the record of the given item and, for a storage, the records
+         * of every item packed inside it.
+         */
+        private void writeRecord(Packable item) {
+            if (item == null) {
+                throw new IllegalArgumentException();
+            }
+            Class<?> type = item.getClass();
+            if (type == Book.class) {
+                Book book = (Book) item;
+                writeByte(BOOK);
+                writeString(book.getOwner());
+                writeString(book.getTitle());
+                writeByte(book.isFiction() ? 1 : 0);
+            } else if (type == Clothes.class) {
+                Clothes clothes = (Clothes) item;
+                writeByte(CLOTHES);
+                writeString(clothes.getOwner());
+                writeByte(clothes.getSize().ordinal());
+                writeByte(clothes.getType().ordinal());
+            } else if (type == Laptop.class) {
+                Laptop laptop = (Laptop) item;
+                writeByte(LAPTOP);
+                writeString(laptop.getOwner());
+                writeVarint(laptop.getAge());
+            } else if (type == Furniture.class) {
+                writeByte(FURNITURE);
+                writeByte(((Furniture) item).getType().ordinal());
+            } else if (type == Box.class) {
+                writeByte(BOX);
+                writeStorage((Box) item);
+            } else if (type == Bag.class) {
+                writeByte(BAG);
+                writeStorage((Bag) item);
+            } else {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        /**
+         * Writes the record of the storage being saved, which may be of any
+         * class of storage that can be saved.
+         */
+        private void writeRoot(Storage storage) {
+            Class<?> type = storage.getClass();
+            if (type == MovingTruck.class) {
+                writeByte(MOVING_TRUCK);
+                writeStorage(storage);
+            } else if (type == Warehouse.class) {
+                writeByte(WAREHOUSE);
+                writeStorage(storage);
+            } else if (storage instanceof Packable item) {
+                writeRecord(item);
+            } else {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        /**
+         * Writes the dimensions and size of the storage, its comment if it is
+         * a box, and the records of the items packed inside it.
+         */
+        private void writeStorage(Storage storage) {
+            writeDouble(storage.getWidth());
+            writeDouble(storage.getHeight());
+            writeDouble(storage.getLength());
+            writeByte(storage.getSize().ordinal());
+            if (storage instanceof Box box) {
+                writeString(box.getComment());
+            }
+            List<Packable> elements = storage.elementsView();
+            writeVarint(elements.size());
+            for (int index = 0; index < elements.size(); index++) {
+                writeRecord(elements.get(index));
+            }
+        }
+
+        /**
+         * Writes the position of the string in the string table, adding it to
+         * the table if it is not already there.
+         */
+        private void writeString(String string) {
+            Integer position = stringPositions.get(string);
+            if (position == null) {
+                position = strings.size();
+                strings.add(string);
+                stringPositions.put(string, position);
+            }
+            writeVarint(position);
+        }
+
+        /**
+         * Writes a non-negative integer, seven bits per byte, least
+         * significant first, with the top bit set on every byte but the last.
+         */
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        /**
+         * Writes the eight bytes of a double, most significant first.
+         */
+        private void writeDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            writeInt((int) (bits >>> 32));
+            writeInt((int) bits);
+        }
+
+        /**
+         * Writes the four bytes of an integer, most significant first.
+         */
+        private void writeInt(int value) {
+            writeByte(value >>> 24);
+            writeByte(value >>> 16);
+            writeByte(value >>> 8);
+            writeByte(value);
+        }
+
+        /**
+         * Writes each of the given bytes in order.
+         */
+        private void writeBytes(byte[] values) {
+            for (byte value : values) {
+                writeByte(value);
+            }
+        }
+
+        /**
+         * Writes the low eight bits of the value, doubling the array if it is
+         * full.
+         */
+        private void writeByte(int value) {
+            if (size == bytes.length) {
+                byte[] grown = new byte[bytes.length * 2];
+                System.arraycopy(bytes, 0, grown, 0, size);
+                bytes = grown;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Returns a buffer of the bytes written.
+         */
+        private ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+    }
+
+    /**
+     * Reads a manifest from a buffer of its bytes.
+     */
+    private static class Decoder {
+        /**
+         * bytes of the manifest, positioned at the next value to read
+         */
+        private ByteBuffer buffer;
+
+        /**
+         * string table of the manifest
+         */
+        private String[] strings;
+
+        /**
+         * Creates a decoder reading from the current position of the buffer.
+         */
+        private Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Reads the header, the string table and the storage record.
+         */
+        private Storage readManifest()
+                throws IOException {
+            if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+                throw new IOException("not a manifest");
+            }
+            strings = new String[readCount()];
+            // bytes of each string, reused while the table is read
+            byte[] stringBytes = new byte[64];
+            for (int index = 0; index < strings.length; index++) {
+                int length = readCount();
+                if (length > stringBytes.length) {
+                    stringBytes = new byte[Math.max(length, stringBytes.length * 2)];
+                }
+                buffer.get(stringBytes, 0, length);
+                strings[index] = new String(stringBytes, 0, length,
+                        StandardCharsets.UTF_8);
+            }
+            byte tag = buffer.get();
+            Storage storage;
+            if (tag == MOVING_TRUCK || tag == WAREHOUSE) {
+                storage = readStorage(tag);
+            } else if (tag == BOX || tag == BAG) {
+                storage = (Storage) readRecord(tag);
+            } else {
+                throw new IOException("manifest does not hold a storage");
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("unexpected data after manifest");
+            }
+            return storage;
+        }
+
+        /**
+         * Reads the record with the given tag, creating its item.
+         */
+        private Packable readRecord(byte tag)
+                throws IOException {
+            try {
+                switch (tag) {
+                    case BOOK:
+                        return new Book(readString(), readString(),
+                                buffer.get() != 0);
+                    case CLOTHES:
+                        return new Clothes(readString(),
+                                SIZES[readOrdinal(SIZES.length)],
+                                CLOTHE_TYPES[readOrdinal(CLOTHE_TYPES.length)]);
+                    case LAPTOP:
+                        return new Laptop(readString(), readVarint());
+                    case FURNITURE:
+                        return Furniture.of(
+                                FURNITURE_TYPES[readOrdinal(FURNITURE_TYPES.length)]);
+                    case BOX:
+                    case BAG:
+                        return (Packable) readStorage(tag);
+                    default:
+                        throw new IOException("unknown record tag " + tag);
+                }
+            } catch (IllegalArgumentException exception) {
+                throw new IOException("invalid record", exception);
+            }
+        }
+
+        /**
+         * Reads the storage record with the given tag, creating the storage
+         * and packing each of its items into it.
+         */
+        private Storage readStorage(byte tag)
+                throws IOException {
+            double width = buffer.getDouble();
+            double height = buffer.getDouble();
+            double length = buffer.getDouble();
+            Size size = SIZES[readOrdinal(SIZES.length)];
+            Storage storage;
+            try {
+                if (tag == BOX) {
+                    storage = new Box(width, height, length, size, readString());
+                } else if (tag == BAG) {
+                    storage = new Bag(width, height, length, size);
+                } else if (tag == MOVING_TRUCK) {
+                    storage = new MovingTruck(width, height, length, size);
+                } else {
+                    storage = new Warehouse(width, height, length, size);
+                }
+            } catch (IllegalArgumentException exception) {
+                throw new IOException("invalid storage", exception);
+            }
+            int count = readCount();
+            for (int index = 0; index < count; index++) {
+                Packable item = readRecord(buffer.get());
+                try {
+                    storage.pack(item);
+                } catch (PackingException exception) {
+                    throw new IOException("saved item does not fit", exception);
+                }
+            }
+            return storage;
+        }
+
+        /**
+         * Reads a position in the string table and returns its string.
+         */
+        private String readString()
+                throws IOException {
+            int position = readVarint();
+            if (position >= strings.length) {
+                throw new IOException("string position out of range");
+            }
+            return strings[position];
+        }
+
+        /**
+         * Reads an ordinal of an enum with the given number of constants.
+         */
+        private int readOrdinal(int constants)
+                throws IOException {
+            int ordinal = buffer.get();
+            if (ordinal < 0 || ordinal >= constants) {
+                throw new IOException("ordinal out of range");
+            }
+            return ordinal;
+        }
+
+        /**
+         * Reads the number of strings, bytes or records that follow. Each takes
+         * at least one byte, so a count larger than the bytes left is rejected
+         * before anything is allocated for it.
+         */
+        private int readCount()
+                throws IOException {
+            int count = readVarint();
+            if (count > buffer.remaining()) {
+                throw new IOException("count out of range");
+            }
+            return count;
+        }
+
+        /**
+         * Reads a non-negative integer written by Encoder.writeVarint(int).
+         */
+        private int readVarint()
+                throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte next = buffer.get();
+                value |= (next & 0x7F) << shift;
+                if (next >= 0) {
+                    if (value < 0) {
+                        throw new IOException("varint out of range");
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("varint too long");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+package mms.manifest;
+
+/**
+ * A line of an item export that could not be imported, and why.
+ */
+public class ImportReject {
+    /**
+     * number of the line in the export, counting from one
+     */
+    private final long lineNumber;
+
+    /**
+     * text of the line
+     */
+    private final String line;
+
+    /**
+     * reason the line was rejected
+     */
+    private final Exception reason;
+
+    /**
+     * Creates a record of a rejected line.
+     * @param lineNumber number of the line in the export, counting from one
+     * @param line text of the line
+     * @param reason reason the line was rejected
+     */
+    ImportReject(long lineNumber, String line, Exception reason) {
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.reason = reason;
+    }
+
+    /**
+     * Returns the number of the rejected line in the export.
+     * @return line number, counting from one
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Returns the text of the rejected line.
+     * @return text of the line
+     */
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * Returns why the line was rejected. This is the PackingException thrown
+     * when its item was packed, such as a BadItemException,
+     * StorageFullException or PackingOrderException, or an
+     * IllegalArgumentException if the line could not be read as an item.
+     * @return reason the line was rejected
+     */
+    public Exception getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the human-readable string representation of the rejected line.
+     * <p>
+     * The format of the string to return is:
+     *     Line 'lineNumber': 'reason': 'line'
+     * where,
+     *     'lineNumber' is the number of the line in the export,
+     *     'reason' is the simple class name of the reason the line was
+     *         rejected, and
+     *     'line' is the text of the line.
+     * Example:
+     *     Line 12: PackingOrderException: 0,Book,Jane,Title,false
+     * @return string representation of this rejected line
+     */
+    public String toString() {
+        return "Line " + lineNumber + ": "
+                + reason.getClass().getSimpleName() + ": "
+                + line;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,316 @@
+package mms.manifest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import mms.exceptions.PackingException;
+import mms.furniture.Furniture;
+import mms.furniture.FurnitureType;
+import mms.personal.Book;
+import mms.personal.ClotheType;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+import mms.storage.Bag;
+import mms.storage.Box;
+import mms.storage.Storage;
+import mms.utility.Packable;
+import mms.utility.Size;
+
+/**
+ * Imports items from a line-oriented text export, packing each item into a
+ * storage as soon as its line is read.
+ * <p>
+ * Each line of the export describes one item as comma-separated fields:
+ *     'depth',Book,'owner','title','isFiction'
+ *     'depth',Clothes,'owner','size','clotheType'
+ *     'depth',Laptop,'owner','age'
+ *     'depth',Furniture,'furnitureType'
+ *     'depth',Box,'width','height','length','size','comment'
+ *     'depth',Bag,'width','height','length','size'
+ * where,
+ *     'depth' is 0 for an item packed into the target storage, or one more
+ *         than the depth of the box or bag, on an earlier line, that the item
+ *         is packed into; the item is packed into the most recent box or bag
+ *         read at that depth,
+ *     'isFiction' is true or false,
+ *     'size', 'clotheType' and 'furnitureType' are the names of the
+ *         constants of Size, ClotheType and FurnitureType, and
+ *     'width', 'height' and 'length' are in cm.
+ * A field containing a comma or a double quote is written between double
+ * quotes, with each double quote inside it written twice. Empty lines, and
+ * lines starting with '#', are skipped.
+ * Example:
+ *     0,Box,100,100,100,MEDIUM,"Kitchen, fragile"
+ *     1,Bag,50,50,50,SMALL
+ *     2,Laptop,Jane,3
+ *     1,Book,Jane,Basics of Java Programming,false
+ *     0,Furniture,CHAIR
+ * <p>
+ * A box or bag is packed while it is still empty, and the items on the lines
+ * after it are packed into it as they are read. Only the boxes and bags that
+ * later lines may still be packed into are kept by the importer, so memory
+ * use does not grow with the length of the export beyond the items packed.
+ * <p>
+ * A line that cannot be imported does not stop the import. It is passed to
+ * the reject handler instead, with the PackingException thrown when its item
+ * was packed, or an IllegalArgumentException if the line is not a valid item.
+ * The items on the lines nested below a rejected box or bag are rejected too.
+ */
+public class ManifestImporter {
+    /**
+     * number of characters read from the export at a time
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * storage to pack the top-level items into
+     */
+    private final Storage target;
+
+    /**
+     * handler given each line that could not be imported
+     */
+    private final Consumer<? super ImportReject> rejects;
+
+    /**
+     * Creates an importer that packs items into the given storage and passes
+     * rejected lines to the given handler.
+     * @param target storage to pack the items into
+     * @param rejects handler to give each rejected line to
+     * @throws IllegalArgumentException if target or rejects is null
+     */
+    public ManifestImporter(Storage target, Consumer<? super ImportReject> rejects)
+            throws IllegalArgumentException {
+        if (target == null || rejects == null) {
+            throw new IllegalArgumentException();
+        }
+        this.target = target;
+        this.rejects = rejects;
+    }
+
+    /**
+     * Imports the items in the given export file, read as UTF-8.
+     * @param path export file to import
+     * @return number of items packed
+     * @throws IOException if reading the file fails
+     */
+    public long importFrom(Path path)
+            throws IOException {
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return importFrom(in);
+        }
+    }
+
+    /**
+     * Imports the items in the given export, reading it to the end. The
+     * reader is not closed.
+     * @param in export to import
+     * @return number of items packed
+     * @throws IOException if reading the export fails
+     */
+    public long importFrom(Reader in)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(in, BUFFER_SIZE);
+        // storages that items may be packed into, where the storage at index
+        // 'depth' holds the items at that depth
+        List<Storage> open = new ArrayList<>();
+        open.add(target);
+        // fields of the current line, reused for every line
+        List<String> fields = new ArrayList<>();
+        // depth and line of the rejected box or bag whose items are being
+        // skipped; -1 if none
+        int skipBelow = -1;
+        long skipLine = 0;
+        long lineNumber = 0;
+        long packed = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            int depth;
+            try {
+                split(line, fields);
+                depth = Integer.parseInt(fields.get(0));
+            } catch (IllegalArgumentException exception) {
+                rejects.accept(new ImportReject(lineNumber, line, exception));
+                continue;
+            }
+            if (skipBelow >= 0 && depth > skipBelow) {
+                rejects.accept(new ImportReject(lineNumber, line,
+                        new PackingException("container on line " + skipLine
+                                + " was rejected")));
+                continue;
+            }
+            skipBelow = -1;
+            try {
+                if (depth < 0 || depth >= open.size()) {
+                    throw new IllegalArgumentException("no container at depth "
+                            + depth);
+                }
+                // boxes and bags deeper than the line can no longer be packed
+                // into
+                open.subList(depth + 1, open.size()).clear();
+                Packable item = parse(fields);
+                open.get(depth).pack(item);
+                packed++;
+                if (item instanceof Storage storage) {
+                    open.add(storage);
+                }
+            } catch (IllegalArgumentException | PackingException exception) {
+                rejects.accept(new ImportReject(lineNumber, line, exception));
+                if (isContainer(fields)) {
+                    // reject the items nested below it too
+                    skipBelow = depth;
+                    skipLine = lineNumber;
+                }
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Returns whether the fields of a line describe a box or bag.
+     */
+    private static boolean isContainer(List<String> fields) {
+        return fields.size() > 1
+                && (fields.get(1).equals("Box") || fields.get(1).equals("Bag"));
+    }
+
+    /**
+     * Creates the item described by the fields of a line.
+     * @throws IllegalArgumentException if the fields do not describe an item
+     */
+    private static Packable parse(List<String> fields)
+            throws IllegalArgumentException {
+        if (fields.size() < 2) {
+            throw new IllegalArgumentException("missing item type");
+        }
+        String type = fields.get(1);
+        switch (type) {
+            case "Book":
+                expectFields(fields, 5);
+                return new Book(text(fields.get(2)), text(fields.get(3)),
+                        parseBoolean(fields.get(4)));
+            case "Clothes":
+                expectFields(fields, 5);
+                return new Clothes(text(fields.get(2)), Size.valueOf(fields.get(3)),
+                        ClotheType.valueOf(fields.get(4)));
+            case "Laptop":
+                expectFields(fields, 4);
+                return new Laptop(text(fields.get(2)),
+                        Integer.parseInt(fields.get(3)));
+            case "Furniture":
+                expectFields(fields, 3);
+                return Furniture.of(FurnitureType.valueOf(fields.get(2)));
+            case "Box":
+                expectFields(fields, 7);
+                return new Box(Double.parseDouble(fields.get(2)),
+                        Double.parseDouble(fields.get(3)),
+                        Double.parseDouble(fields.get(4)),
+                        Size.valueOf(fields.get(5)), fields.get(6));
+            case "Bag":
+                expectFields(fields, 6);
+                return new Bag(Double.parseDouble(fields.get(2)),
+                        Double.parseDouble(fields.get(3)),
+                        Double.parseDouble(fields.get(4)),
+                        Size.valueOf(fields.get(5)));
+            default:
+                throw new IllegalArgumentException("unknown item type " + type);
+        }
+    }
+
+    /**
+     * Checks that a line has the given number of fields.
+     * @throws IllegalArgumentException if it does not
+     */
+    private static void expectFields(List<String> fields, int expected)
+            throws IllegalArgumentException {
+        if (fields.size() != expected) {
+            throw new IllegalArgumentException("expected " + expected
+                    + " fields");
+        }
+    }
+
+    /**
+     * Returns the given owner or title.
+     * @throws IllegalArgumentException if it is empty
+     */
+    private static String text(String field)
+            throws IllegalArgumentException {
+        if (field.isEmpty()) {
+            throw new IllegalArgumentException("empty owner or title");
+        }
+        return field;
+    }
+
+    /**
+     * Returns the boolean written as true or false.
+     * @throws IllegalArgumentException if the text is neither
+     */
+    private static boolean parseBoolean(String text)
+            throws IllegalArgumentException {
+        if (text.equals("true")) {
+            return true;
+        } else if (text.equals("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("expected true or false");
+    }
+
+    /**
+     * Splits a line into its comma-separated fields, replacing the contents of
+     * the given list.
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    private static void split(String line, List<String> fields)
+            throws IllegalArgumentException {
+        fields.clear();
+        int index = 0;
+        while (true) {
+            if (index < line.length() && line.charAt(index) == '"') {
+                // quoted field, where two double quotes stand for one
+                StringBuilder field = new StringBuilder();
+                index++;
+                while (true) {
+                    int quote = line.indexOf('"', index);
+                    if (quote < 0) {
+                        throw new IllegalArgumentException("unclosed quote");
+                    }
+                    field.append(line, index, quote);
+                    index = quote + 1;
+                    if (index < line.length() && line.charAt(index) == '"') {
+                        field.append('"');
+                        index++;
+                    } else {
+                        break;
+                    }
+                }
+                fields.add(field.toString());
+                if (index == line.length()) {
+                    return;
+                }
+                if (line.charAt(index) != ',') {
+                    throw new IllegalArgumentException("text after quote");
+                }
+                index++;
+            } else {
+                int comma = line.indexOf(',', index);
+                if (comma < 0) {
+                    fields.add(line.substring(index));
+                    return;
+                }
+                fields.add(line.substring(index, comma));
+                index = comma + 1;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -43,6 +43,14 @@ public class Book extends Personal {
         return title;
     }
 
+    /**
+     * Returns if the book is a work of fiction.
+     * @return true if this book is fiction, false if it is non-fiction
+     */
+    public boolean isFiction() {
+        return isFiction;
+    }
+
     /**
      * Returns the human-readable string representation of the book.
      * <p>
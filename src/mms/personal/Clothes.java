@@ -58,6 +58,28 @@ public class Clothes extends Personal {
         return size;
     }
 
+    /**
+     * Returns the weight of the clothing item in grams.
+     * <p>
+     * Clothing has the following weight determined by its size.
+     *     Size         Weight (g)
+     *     SMALL         150
+     *     MEDIUM        200
+     *     LARGE         250
+     * @return weight of this clothing item in grams
+     */
+    public int getWeight() {
+        int weight = 0;
+        if (size == Size.SMALL) {
+            weight = 150;
+        } else if (size == Size.MEDIUM) {
+            weight = 200;
+        } else if (size == Size.LARGE) {
+            weight = 250;
+        }
+        return weight;
+    }
+
     /**
      * Returns the human-readable string representation of the clothing.
      * <p>
@@ -9,6 +9,11 @@ public class Laptop extends Personal {
      */
     private int age;
 
+    /**
+     * weight of a laptop in grams
+     */
+    private static final int WEIGHT = 1000;
+
     /**
      * Creates a laptop with the specified owner and age.
      * A laptop has a width of 35 cm, height of 20 cm and length of 2 cm.
@@ -35,6 +40,15 @@ public class Laptop extends Personal {
         return age;
     }
 
+    /**
+     * Returns the weight of the laptop in grams.
+     * A laptop weighs 1000 grams.
+     * @return weight of this laptop in grams
+     */
+    public int getWeight() {
+        return WEIGHT;
+    }
+
     /**
      * Returns the human-readable string representation of the laptop
      * <p>
@@ -115,6 +115,15 @@ public abstract class Personal extends Object implements Packable {
         return baseWeight;
     }
 
+    /**
+     * Returns the weight of the personal item in grams.
+     * By default, a personal item weighs the base weight of 250 grams.
+     * @return weight of this personal item in grams
+     */
+    public int getWeight() {
+        return getBaseWeight();
+    }
+
     /**
      * Updates the width, height and length of the personal items to new
      * values.
@@ -0,0 +1,73 @@
+package mms.planning;
+
+import java.util.Collections;
+import java.util.List;
+
+import mms.utility.Packable;
+
+/**
+ * The result of planning a move: the load of each truck in the fleet, and any
+ * items that do not fit in any available kind of truck.
+ */
+public class FleetPlan {
+    /**
+     * load of each truck, one per truck
+     */
+    private final List<TruckLoad> loads;
+
+    /**
+     * items too large to fit in any available kind of truck
+     */
+    private final List<Packable> unassigned;
+
+    /**
+     * Creates a fleet plan of the given loads and unassigned items.
+     * @param loads load of each truck
+     * @param unassigned items that do not fit in any truck
+     */
+    FleetPlan(List<TruckLoad> loads, List<Packable> unassigned) {
+        this.loads = Collections.unmodifiableList(loads);
+        this.unassigned = Collections.unmodifiableList(unassigned);
+    }
+
+    /**
+     * Returns the load of each truck in the fleet.
+     * The returned list cannot be modified.
+     * @return truck loads of this plan
+     */
+    public List<TruckLoad> getLoads() {
+        return loads;
+    }
+
+    /**
+     * Returns the number of trucks needed.
+     * @return number of truck loads in this plan
+     */
+    public int getTruckCount() {
+        return loads.size();
+    }
+
+    /**
+     * Returns the items that do not fit in any available kind of truck, even
+     * on their own. The returned list cannot be modified.
+     * @return unassigned items of this plan
+     */
+    public List<Packable> getUnassigned() {
+        return unassigned;
+    }
+
+    /**
+     * Returns the human-readable string representation of the fleet plan.
+     * <p>
+     * The format of the string to return is:
+     *     FleetPlan ('trucks' trucks, 'unassigned' unassigned)
+     * Example:
+     *     FleetPlan (12 trucks, 0 unassigned)
+     * @return string representation of this fleet plan
+     */
+    public String toString() {
+        return getClass().getSimpleName() + " ("
+                + loads.size() + " trucks, "
+                + unassigned.size() + " unassigned)";
+    }
+}
\ No newline at end of file
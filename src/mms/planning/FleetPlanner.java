@@ -0,0 +1,450 @@
+package mms.planning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import mms.furniture.Furniture;
+import mms.utility.Packable;
+
+/**
+ * Plans how to distribute the items of a move across a fleet of moving
+ * trucks, using as few trucks as possible.
+ * <p>
+ * Each truck load respects the rules of MovingTruck.pack(Packable): a truck
+ * holds at most its capacity of items, the lengths of its items add up to no
+ * more than the length of its storage area, and the widths and heights of its
+ * items do not both add up to more than the width and height of the truck.
+ * Within each load, every item that is not furniture is listed before any
+ * furniture, so packing a load in order never causes a PackingOrderException.
+ * <p>
+ * Several candidate plans are built, each by first fit decreasing with a
+ * different item order and kind of truck, and each truck of a candidate is
+ * then swapped for the smallest kind of truck that still holds its load. The
+ * candidates are built in parallel on the common fork/join pool, and the one
+ * using the fewest trucks, then the least storage volume, is returned.
+ */
+public class FleetPlanner {
+    /**
+     * orders to sort items in before assigning them to trucks, largest first
+     */
+    private static final List<Comparator<Packable>> ITEM_ORDERS = List.of(
+            Comparator.comparingDouble(Packable::getLength).reversed(),
+            Comparator.comparingDouble(Packable::getVolume).reversed(),
+            Comparator.<Packable>comparingDouble(
+                    item -> Math.max(item.getWidth(), item.getHeight()))
+                    .reversed());
+
+    /**
+     * number of candidate plans below which a task builds them itself rather
+     * than splitting them between two tasks
+     */
+    private static final int CANDIDATES_PER_TASK = 1;
+
+    /**
+     * kinds of truck available, smallest storage volume first
+     */
+    private final List<TruckSpec> specs;
+
+    /**
+     * Creates a fleet planner for the given kinds of truck. Any number of
+     * trucks of each kind may be used.
+     * @param specs kinds of truck available
+     * @throws IllegalArgumentException if specs is null or empty, or contains
+     *     null
+     */
+    public FleetPlanner(Collection<TruckSpec> specs)
+            throws IllegalArgumentException {
+        if (specs == null || specs.isEmpty() || containsNull(specs)) {
+            throw new IllegalArgumentException();
+        }
+        this.specs = new ArrayList<>(specs);
+        this.specs.sort(Comparator.comparingDouble(TruckSpec::getStorageVolume));
+    }
+
+    /**
+     * Plans how to pack the given items into trucks.
+     * <p>
+     * Items that do not fit into any kind of truck on their own are not
+     * assigned to a truck, and are listed as unassigned in the plan.
+     * @param items items to pack
+     * @return plan of the truck loads for the items
+     * @throws IllegalArgumentException if items is null or contains null
+     */
+    public FleetPlan plan(List<? extends Packable> items)
+            throws IllegalArgumentException {
+        if (items == null || containsNull(items)) {
+            throw new IllegalArgumentException();
+        }
+        Manifest manifest = new Manifest(items, specs);
+
+        // one candidate for each order of items and kind of truck to fill
+        List<int[]> orders = new ArrayList<>();
+        for (Comparator<Packable> itemOrder : ITEM_ORDERS) {
+            orders.add(manifest.assignableInOrder(items, itemOrder));
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        for (int[] order : orders) {
+            for (TruckSpec spec : specs) {
+                candidates.add(new Candidate(manifest, order, spec));
+            }
+        }
+        Candidate best = ForkJoinPool.commonPool().invoke(
+                new BuildTask(candidates, 0, candidates.size()));
+
+        List<TruckLoad> loads = new ArrayList<>();
+        for (Bin bin : best.bins) {
+            loads.add(bin.toLoad(items, manifest));
+        }
+        List<Packable> unassigned = new ArrayList<>();
+        for (int index : manifest.unassigned) {
+            unassigned.add(items.get(index));
+        }
+        return new FleetPlan(loads, unassigned);
+    }
+
+    /**
+     * Returns whether the given collection contains null. Unlike
+     * Collection.contains(Object), this works for collections that do not
+     * permit null.
+     */
+    private static boolean containsNull(Collection<?> elements) {
+        for (Object element : elements) {
+            if (element == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The dimensions of the items being planned, read once into arrays so
+     * that candidates can be built without calling back into the items.
+     */
+    private static class Manifest {
+        /**
+         * width of each item in cm
+         */
+        private final double[] widths;
+        /**
+         * height of each item in cm
+         */
+        private final double[] heights;
+        /**
+         * length of each item in cm
+         */
+        private final double[] lengths;
+
+        /**
+         * whether each item is furniture
+         */
+        private final boolean[] furniture;
+
+        /**
+         * kinds of truck available, smallest storage volume first
+         */
+        private final List<TruckSpec> specs;
+
+        /**
+         * positions of the items that fit in no kind of truck on their own
+         */
+        private final List<Integer> unassigned = new ArrayList<>();
+
+        /**
+         * length of the shortest item that can be assigned, in cm
+         */
+        private double shortestLength = Double.MAX_VALUE;
+
+        private Manifest(List<? extends Packable> items, List<TruckSpec> specs) {
+            this.specs = specs;
+            widths = new double[items.size()];
+            heights = new double[items.size()];
+            lengths = new double[items.size()];
+            furniture = new boolean[items.size()];
+            for (int index = 0; index < items.size(); index++) {
+                Packable item = items.get(index);
+                widths[index] = item.getWidth();
+                heights[index] = item.getHeight();
+                lengths[index] = item.getLength();
+                furniture[index] = item instanceof Furniture;
+                if (fitsAlone(index)) {
+                    shortestLength = Math.min(shortestLength, lengths[index]);
+                } else {
+                    unassigned.add(index);
+                }
+            }
+        }
+
+        /**
+         * Returns whether the item fits on its own in some kind of truck.
+         */
+        private boolean fitsAlone(int index) {
+            return smallestSpecFor(index) != null;
+        }
+
+        /**
+         * Returns the kind of truck with the least storage volume that the
+         * item fits in on its own; null if none.
+         */
+        private TruckSpec smallestSpecFor(int index) {
+            for (TruckSpec spec : specs) {
+                if (new Bin(spec).fits(this, index)) {
+                    return spec;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the positions of the items that can be assigned, sorted in
+         * the given order.
+         */
+        private int[] assignableInOrder(List<? extends Packable> items,
+                                        Comparator<Packable> itemOrder) {
+            // boxed so that the positions can be sorted by their items
+            Integer[] positions = new Integer[widths.length - unassigned.size()];
+            int count = 0;
+            int next = 0;
+            for (int index = 0; index < widths.length; index++) {
+                if (next < unassigned.size() && unassigned.get(next) == index) {
+                    next++;
+                } else {
+                    positions[count++] = index;
+                }
+            }
+            Arrays.sort(positions, (first, second) ->
+                    itemOrder.compare(items.get(first), items.get(second)));
+            return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * A truck being filled in a candidate plan.
+     */
+    private static class Bin {
+        /**
+         * kind of truck
+         */
+        private TruckSpec spec;
+
+        /**
+         * positions of the items assigned to this truck, in assignment order
+         */
+        private int[] items = new int[8];
+
+        /**
+         * number of items assigned to this truck
+         */
+        private int count = 0;
+
+        /**
+         * sum of the widths of the items assigned to this truck in cm
+         */
+        private double totalWidth = 0;
+        /**
+         * sum of the heights of the items assigned to this truck in cm
+         */
+        private double totalHeight = 0;
+        /**
+         * sum of the lengths of the items assigned to this truck in cm
+         */
+        private double totalLength = 0;
+
+        private Bin(TruckSpec spec) {
+            this.spec = spec;
+        }
+
+        /**
+         * Returns whether the item can be added to this truck.
+         * <p>
+         * The exact sums of the dimensions are compared, which are never less
+         * than the whole centimetre sums a moving truck keeps, so a load that
+         * fits here packs into a moving truck in any order.
+         */
+        private boolean fits(Manifest manifest, int index) {
+            return fits(count + 1,
+                    totalWidth + manifest.widths[index],
+                    totalHeight + manifest.heights[index],
+                    totalLength + manifest.lengths[index],
+                    spec);
+        }
+
+        /**
+         * Returns whether a load of the given number of items with the given
+         * sums of dimensions fits in a truck of the given kind.
+         */
+        private static boolean fits(int count, double width, double height,
+                                    double length, TruckSpec spec) {
+            return count <= spec.getCapacity()
+                    && length <= spec.getStorageLength()
+                    && !(width > spec.getWidth() && height > spec.getHeight());
+        }
+
+        private void add(Manifest manifest, int index) {
+            if (count == items.length) {
+                items = Arrays.copyOf(items, count * 2);
+            }
+            items[count++] = index;
+            totalWidth += manifest.widths[index];
+            totalHeight += manifest.heights[index];
+            totalLength += manifest.lengths[index];
+        }
+
+        /**
+         * Returns whether no further item can be added to this truck.
+         */
+        private boolean isClosed(Manifest manifest) {
+            return count == spec.getCapacity()
+                    || totalLength + manifest.shortestLength
+                            > spec.getStorageLength();
+        }
+
+        /**
+         * Swaps this truck for the kind of truck with the least storage volume
+         * that still holds its load.
+         */
+        private void rightSize(List<TruckSpec> specs) {
+            for (TruckSpec smaller : specs) {
+                if (smaller == spec) {
+                    return;
+                }
+                if (fits(count, totalWidth, totalHeight, totalLength, smaller)) {
+                    spec = smaller;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Returns the load of this truck, with every item that is not
+         * furniture before any furniture.
+         */
+        private TruckLoad toLoad(List<? extends Packable> allItems,
+                                 Manifest manifest) {
+            List<Packable> load = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                if (!manifest.furniture[items[index]]) {
+                    load.add(allItems.get(items[index]));
+                }
+            }
+            for (int index = 0; index < count; index++) {
+                if (manifest.furniture[items[index]]) {
+                    load.add(allItems.get(items[index]));
+                }
+            }
+            return new TruckLoad(spec, load);
+        }
+    }
+
+    /**
+     * A candidate plan, built by first fit decreasing with one item order,
+     * filling trucks of one kind.
+     */
+    private static class Candidate {
+        private final Manifest manifest;
+        private final int[] order;
+        private final TruckSpec fillSpec;
+
+        /**
+         * trucks of the plan once built
+         */
+        private final List<Bin> bins = new ArrayList<>();
+
+        /**
+         * total storage volume of the trucks of the plan once built in cm3
+         */
+        private double storageVolume = 0;
+
+        private Candidate(Manifest manifest, int[] order, TruckSpec fillSpec) {
+            this.manifest = manifest;
+            this.order = order;
+            this.fillSpec = fillSpec;
+        }
+
+        /**
+         * Assigns each item in order to the first truck it fits in, opening a
+         * new truck when it fits in none, then right-sizes the trucks.
+         */
+        private Candidate build() {
+            // trucks that may still take another item, in the order opened
+            List<Bin> open = new ArrayList<>();
+            for (int index : order) {
+                Bin target = null;
+                int position = 0;
+                for (; position < open.size(); position++) {
+                    if (open.get(position).fits(manifest, index)) {
+                        target = open.get(position);
+                        break;
+                    }
+                }
+                if (target == null) {
+                    // fill a new truck, of a larger kind if the item needs it
+                    target = new Bin(fillSpec);
+                    if (!target.fits(manifest, index)) {
+                        target = new Bin(manifest.smallestSpecFor(index));
+                    }
+                    bins.add(target);
+                    open.add(target);
+                    position = open.size() - 1;
+                }
+                target.add(manifest, index);
+                if (target.isClosed(manifest)) {
+                    open.remove(position);
+                }
+            }
+            for (Bin bin : bins) {
+                bin.rightSize(manifest.specs);
+                storageVolume += bin.spec.getStorageVolume();
+            }
+            return this;
+        }
+
+        /**
+         * Returns whether this plan uses fewer trucks than the other, or as
+         * many trucks with less storage volume.
+         */
+        private boolean isBetterThan(Candidate other) {
+            if (bins.size() != other.bins.size()) {
+                return bins.size() < other.bins.size();
+            }
+            return storageVolume < other.storageVolume;
+        }
+    }
+
+    /**
+     * Builds a range of candidate plans, splitting the range between two
+     * tasks, and returns the best.
+     */
+    private static class BuildTask extends RecursiveTask<Candidate> {
+        /**
+         * tasks are never serialized, but RecursiveTask is Serializable
+         */
+        private static final long serialVersionUID = 1L;
+
+        private final List<Candidate> candidates;
+        private final int from;
+        private final int to;
+
+        private BuildTask(List<Candidate> candidates, int from, int to) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+        }
+
+        protected Candidate compute() {
+            if (to - from <= CANDIDATES_PER_TASK) {
+                return candidates.get(from).build();
+            }
+            int middle = (from + to) / 2;
+            BuildTask first = new BuildTask(candidates, from, middle);
+            first.fork();
+            Candidate second = new BuildTask(candidates, middle, to).compute();
+            Candidate best = first.join();
+            return second.isBetterThan(best) ? second : best;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package mms.planning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import mms.exceptions.PackingException;
+import mms.storage.MovingTruck;
+import mms.utility.Packable;
+
+/**
+ * The items planned to be packed into one moving truck of a fleet.
+ * <p>
+ * The items are listed in the order they are to be packed, with every item
+ * that is not furniture before any furniture, so packing them in order never
+ * breaks the packing order of a moving truck.
+ */
+public class TruckLoad {
+    /**
+     * kind of truck the items are planned for
+     */
+    private final TruckSpec spec;
+
+    /**
+     * items to pack, in packing order
+     */
+    private final List<Packable> items;
+
+    /**
+     * Creates a truck load of the given items, already in packing order.
+     * @param spec kind of truck the items are planned for
+     * @param items items to pack, in packing order
+     */
+    TruckLoad(TruckSpec spec, List<Packable> items) {
+        this.spec = spec;
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+    }
+
+    /**
+     * Returns the kind of truck the items are planned for.
+     * @return truck spec of this load
+     */
+    public TruckSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Returns the items to pack into the truck, in packing order.
+     * The returned list cannot be modified.
+     * @return items in this load
+     */
+    public List<Packable> getItems() {
+        return items;
+    }
+
+    /**
+     * Creates a moving truck of the planned kind and packs every item of the
+     * load into it, in order.
+     * @return new moving truck containing the items of this load
+     * @throws PackingException if the truck rejects an item, which does not
+     *     happen for a load created by a fleet planner
+     */
+    public MovingTruck pack()
+            throws PackingException {
+        MovingTruck truck = spec.createTruck();
+        for (Packable item : items) {
+            truck.pack(item);
+        }
+        return truck;
+    }
+
+    /**
+     * Returns the human-readable string representation of the truck load.
+     * <p>
+     * The format of the string to return is:
+     *     'spec': 'count' items
+     * Example:
+     *     TruckSpec (250.00, 250.00, 2500.00) LARGE: 40 items
+     * @return string representation of this truck load
+     */
+    public String toString() {
+        return spec + ": " + items.size() + " items";
+    }
+}
\ No newline at end of file
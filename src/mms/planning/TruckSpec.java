@@ -0,0 +1,148 @@
+package mms.planning;
+
+import mms.storage.MovingTruck;
+import mms.utility.Size;
+
+/**
+ * The dimensions and size of a kind of moving truck available for a move.
+ * <p>
+ * A truck spec describes a moving truck without creating one, so that a fleet
+ * planner can decide how many trucks of each kind are needed before any is
+ * packed.
+ */
+public class TruckSpec {
+    /**
+     * width of trucks of this kind in cm
+     */
+    private final double width;
+    /**
+     * height of trucks of this kind in cm
+     */
+    private final double height;
+    /**
+     * length of trucks of this kind in cm, including the cab
+     */
+    private final double length;
+
+    /**
+     * size of trucks of this kind
+     */
+    private final Size size;
+
+    /**
+     * maximum number of items in a truck of this kind
+     */
+    private final int capacity;
+
+    /**
+     * length of the storage area of trucks of this kind in cm
+     */
+    private final double storageLength;
+
+    /**
+     * Creates a truck spec with the specified width, height, length and size.
+     * @param width width of the moving truck in cm
+     * @param height height of the moving truck in cm
+     * @param length length of the moving truck in cm, including the cab
+     * @param size size of the moving truck
+     * @throws IllegalArgumentException if width or height are less than or
+     *     equal to zero, or if length < 1500 i.e. cab length
+     */
+    public TruckSpec(double width,
+                     double height,
+                     double length,
+                     Size size)
+            throws IllegalArgumentException {
+        // a truck of this kind, checking the dimensions as a truck would
+        MovingTruck truck = new MovingTruck(width, height, length, size);
+        this.width = width;
+        this.height = height;
+        this.length = length;
+        this.size = size;
+        capacity = truck.getCapacity();
+        storageLength = truck.getStorageLength();
+    }
+
+    /**
+     * Returns the width of trucks of this kind in cm.
+     * @return width of this truck spec
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of trucks of this kind in cm.
+     * @return height of this truck spec
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the length of trucks of this kind in cm, including the cab.
+     * @return length of this truck spec
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the size of trucks of this kind.
+     * @return size of this truck spec
+     */
+    public Size getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of items in a truck of this kind.
+     * @return capacity of this truck spec
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the length of the storage area of trucks of this kind, behind
+     * the cab, in cm.
+     * @return storage length of this truck spec
+     */
+    public double getStorageLength() {
+        return storageLength;
+    }
+
+    /**
+     * Returns the volume of the storage area of trucks of this kind in cm3.
+     * @return storage volume of this truck spec
+     */
+    public double getStorageVolume() {
+        return width * height * storageLength;
+    }
+
+    /**
+     * Creates a new empty moving truck of this kind.
+     * @return new moving truck
+     */
+    public MovingTruck createTruck() {
+        return new MovingTruck(width, height, length, size);
+    }
+
+    /**
+     * Returns the human-readable string representation of the truck spec.
+     * <p>
+     * The format of the string to return is:
+     *     TruckSpec ('width', 'height', 'length') 'size'
+     * where the width, height and length are in cm to two decimal places.
+     * Example:
+     *     TruckSpec (250.00, 250.00, 2500.00) LARGE
+     * @return string representation of this truck spec
+     */
+    public String toString() {
+        return getClass().getSimpleName() + " ("
+                + String.format("%.2f", width) + ", "
+                + String.format("%.2f", height) + ", "
+                + String.format("%.2f", length) + ") "
+                + size;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,250 @@
+package mms.storage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import mms.utility.Packable;
+
+/**
+ * A storage listener that queues events and delivers them in batches on a
+ * background thread, so that slow consumers, such as a metrics or audit
+ * pipeline, do not slow down packing.
+ * <p>
+ * Each event is recorded as a StorageEvent and added to a bounded queue,
+ * which is all the packing thread does. A single delivery thread takes the
+ * events from the queue in the order they were added and passes them to the
+ * consumer in batches of up to the queue capacity, so that a consumer that
+ * falls behind receives larger batches instead of more calls. If the queue
+ * is full, the packing thread waits for space, so no event is lost.
+ * <p>
+ * Events record the storage and item, not their state at the time, so the
+ * consumer sees the storage as it is when the batch is delivered. The
+ * listener may be registered with several storages, packed from different
+ * threads. The delivery thread is stopped by close(), which first delivers
+ * every event already queued. Every event is either queued before close()
+ * and delivered, or rejected with an IllegalStateException. No lock is held
+ * while a packing thread waits for space, so a thread waiting for space never
+ * holds up other packing threads or close(). Events raised by the consumer
+ * itself, such as by packing into a storage this listener observes, are kept
+ * by the delivery thread and delivered before it takes more from the queue,
+ * so the consumer never waits for space only it can make.
+ */
+public class AsyncStorageListener
+        implements StorageListener, AutoCloseable {
+    /**
+     * event queued by close() to stop the delivery thread
+     */
+    private static final StorageEvent END =
+            new StorageEvent(StorageEvent.Kind.UNPACKED, null, null, null);
+
+    /**
+     * events not yet delivered, in the order they happened
+     */
+    private final BlockingQueue<StorageEvent> queue;
+
+    /**
+     * consumer given each batch of events
+     */
+    private final Consumer<? super List<StorageEvent>> consumer;
+
+    /**
+     * thread delivering the batches
+     */
+    private final Thread deliveryThread;
+
+    /**
+     * events raised by the consumer on the delivery thread, delivered before
+     * more are taken from the queue; used only by the delivery thread
+     */
+    private final Queue<StorageEvent> ownEvents = new ArrayDeque<>();
+
+    /**
+     * whether close() has been called
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * number of threads queuing an event, which close() waits for before
+     * queuing the end marker
+     */
+    private final AtomicInteger producers = new AtomicInteger();
+
+    /**
+     * Creates a listener that delivers events to the given consumer, and
+     * starts its delivery thread.
+     * @param consumer consumer to give each batch of events to; the list is
+     *     reused, so the consumer must not keep it after it returns
+     * @param capacity number of events that may be queued before packing
+     *     waits for the consumer, and the largest batch size
+     * @throws IllegalArgumentException if consumer is null or capacity < 1
+     */
+    public AsyncStorageListener(Consumer<? super List<StorageEvent>> consumer,
+                                int capacity)
+            throws IllegalArgumentException {
+        if (consumer == null || capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.consumer = consumer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.deliveryThread = new Thread(() -> deliver(capacity),
+                "storage-events");
+        deliveryThread.setDaemon(true);
+        deliveryThread.start();
+    }
+
+    /**
+     * Queues a packed item event.
+     * @param storage storage the item was packed into
+     * @param item item packed
+     * @throws IllegalStateException if the listener has been closed
+     */
+    public void itemPacked(Storage storage, Packable item) {
+        enqueue(new StorageEvent(StorageEvent.Kind.PACKED, storage, item,
+                null));
+    }
+
+    /**
+     * Queues a rejected item event.
+     * @param storage storage that rejected the item
+     * @param item item rejected
+     * @param reason reason the item was rejected
+     * @throws IllegalStateException if the listener has been closed
+     */
+    public void itemRejected(Storage storage, Packable item, PackResult reason) {
+        enqueue(new StorageEvent(StorageEvent.Kind.REJECTED, storage, item,
+                reason));
+    }
+
+    /**
+     * Queues an unpacked item event.
+     * @param storage storage the item was unpacked from
+     * @param item item unpacked
+     * @throws IllegalStateException if the listener has been closed
+     */
+    public void itemUnpacked(Storage storage, Packable item) {
+        enqueue(new StorageEvent(StorageEvent.Kind.UNPACKED, storage, item,
+                null));
+    }
+
+    /**
+     * Delivers every event already queued, then stops the delivery thread,
+     * waiting for it to finish. Events after this are rejected with an
+     * IllegalStateException, so the listener should be removed from its
+     * storages first. Closing an already closed listener only waits for the
+     * delivery thread to finish.
+     * <p>
+     * If the calling thread is interrupted while waiting, it goes on waiting
+     * and its interrupt status is set again before returning.
+     */
+    public void close() {
+        boolean interrupted = false;
+        if (closed.compareAndSet(false, true)) {
+            // threads that saw the listener open finish queuing their events
+            while (producers.get() != 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                }
+            }
+            while (true) {
+                try {
+                    queue.put(END);
+                    break;
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        }
+        while (true) {
+            try {
+                deliveryThread.join();
+                break;
+            } catch (InterruptedException exception) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds an event to the queue, waiting for space if it is full, or keeps it
+     * for the next batch if raised by the consumer. A thread counts itself as
+     * queuing before checking whether the listener is closed, and close()
+     * marks the listener closed before waiting for that count to fall to
+     * zero, so the end marker is always queued after an event queued here.
+     * @throws IllegalStateException if the listener has been closed, or the
+     *     thread is interrupted while waiting for space
+     */
+    private void enqueue(StorageEvent event) {
+        producers.incrementAndGet();
+        try {
+            if (closed.get()) {
+                throw new IllegalStateException();
+            }
+            if (Thread.currentThread() == deliveryThread) {
+                ownEvents.add(event);
+                return;
+            }
+            queue.put(event);
+        } catch (InterruptedException exception) {
+            // keep the interrupt for the packing thread to handle
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        } finally {
+            producers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Takes events from the queue and passes them to the consumer in batches
+     * until the end marker is taken. Events raised by the consumer are passed
+     * to it before more are taken. An exception thrown by the consumer is
+     * passed to the uncaught exception handler of the thread, and delivery
+     * continues with the next batch.
+     */
+    private void deliver(int batchSize) {
+        List<StorageEvent> batch = new ArrayList<>(batchSize);
+        boolean ended = false;
+        while (!ended) {
+            if (!ownEvents.isEmpty()) {
+                while (!ownEvents.isEmpty() && batch.size() < batchSize) {
+                    batch.add(ownEvents.remove());
+                }
+            } else {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException exception) {
+                    // only close() stops delivery
+                    continue;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                // the end marker is always the last event queued
+                if (batch.get(batch.size() - 1) == END) {
+                    batch.remove(batch.size() - 1);
+                    ended = true;
+                }
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    consumer.accept(batch);
+                } catch (RuntimeException exception) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler()
+                            .uncaughtException(thread, exception);
+                }
+            }
+            batch.clear();
+        }
+    }
+}
\ No newline at end of file
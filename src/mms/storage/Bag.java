@@ -1,14 +1,10 @@
 package mms.storage;
 
-import mms.exceptions.BadItemException;
 import mms.exceptions.PackingException;
-import mms.exceptions.StorageFullException;
 import mms.personal.Personal;
 import mms.utility.Packable;
 import mms.utility.Size;
 
-import static mms.personal.Personal.getBaseWeight;
-
 /**
  * A bag to store different personal items.
  */
@@ -19,6 +15,11 @@ public class Bag extends Storage
      */
     private int maxBagWeight = 1500;
 
+    /**
+     * sum of the weights of the items in this bag in grams
+     */
+    private int totalItemsWeight = 0;
+
     /**
      * Creates an empty medium-sized bag with the specified width, height and
      * length.
@@ -55,6 +56,15 @@ public class Bag extends Storage
         return 1;
     }
 
+    /**
+     * Returns the sum of the weights of all the items in the bag in grams.
+     * The sum is kept up to date as items are packed and unpacked.
+     * @return sum of the weights of the items in this bag
+     */
+    public int getTotalItemsWeight() {
+        return totalItemsWeight;
+    }
+
     /**
      * Adds an item to the bags internal list.
      * <p>
@@ -80,18 +90,86 @@ public class Bag extends Storage
      */
     public void pack(Packable item)
             throws PackingException {
+        super.pack(item);
+    }
+
+    /**
+     * Returns whether the given item could be added to the bag now, that is,
+     * it is a personal item within the remaining weight of the bag and fits
+     * in accordance with the superclass.
+     * @param item item to check
+     * @return BAD_ITEM if the item is not a personal item, OVERWEIGHT if it
+     *     would take the bag over its maximum weight, otherwise the result of
+     *     the superclass
+     */
+    protected PackResult check(Packable item) {
         if (!(item instanceof Personal)) {
-            throw new BadItemException();
-        } else {
-            // total weight of items in storage
-            int totalItemsWeight = 0;
-            for (Packable element : getElements()) {
-                totalItemsWeight += getBaseWeight();
-            }
-            if (totalItemsWeight + getBaseWeight() > maxBagWeight) {
-                throw new StorageFullException();
-            }
+            return PackResult.BAD_ITEM;
+        } else if (!fitsWeight(item)) {
+            return PackResult.OVERWEIGHT;
         }
-        super.pack(item);
+        return super.check(item);
+    }
+
+    /**
+     * Returns how many copies of the given item could be packed into the bag
+     * one after another, starting now, that is, none if it is not a personal
+     * item, and otherwise as many as fit within the remaining weight of the
+     * bag and in accordance with the superclass.
+     * @param item item to count copies of
+     * @return number of copies of the item that could be packed
+     */
+    public int countFits(Packable item) {
+        if (!(item instanceof Personal)) {
+            return 0;
+        }
+        int weight = ((Personal) item).getWeight();
+        int count = super.countFits(item);
+        if (weight > 0) {
+            count = Math.min(count, getRemainingWeight() / weight);
+        }
+        return count;
+    }
+
+    /**
+     * Returns how much more weight, in grams, may be packed into the bag
+     * before it reaches its maximum weight of 1.5 kg.
+     * @return maximum weight of this bag less the weight of its items
+     */
+    public int getRemainingWeight() {
+        return maxBagWeight - totalItemsWeight;
+    }
+
+    /**
+     * Adds the weight of a packed item to the total weight of the bag.
+     * @param item item that was added, always a personal item
+     */
+    protected void elementAdded(Packable item) {
+        totalItemsWeight += ((Personal) item).getWeight();
+    }
+
+    /**
+     * Removes the weight of an unpacked item from the total weight of the bag.
+     * @param item item that was removed, always a personal item
+     */
+    protected void elementRemoved(Packable item) {
+        totalItemsWeight -= ((Personal) item).getWeight();
+    }
+
+    /**
+     * Removes an item from the bags internal list.
+     * The list should be unpacked in a First In, First Out (FIFO) format.
+     * @return item at the first index in this bag internal list;
+     *     null if the list is empty
+     */
+    public Packable unpack() {
+        return super.unpack();
+    }
+
+    /**
+     * if adding the personal item keeps the bag within its maximum weight
+     */
+    private boolean fitsWeight(Packable item) {
+        return totalItemsWeight + ((Personal) item).getWeight() <= maxBagWeight;
     }
 }
\ No newline at end of file
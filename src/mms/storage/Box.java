@@ -1,5 +1,8 @@
 package mms.storage;
 
+import java.util.Collection;
+import java.util.List;
+
 import mms.exceptions.PackingException;
 import mms.furniture.Furniture;
 import mms.personal.Laptop;
@@ -25,6 +28,11 @@ public class Box extends Storage implements Packable {
      */
     private boolean isFragile = false;
 
+    /**
+     * if this box was fragile before the batch being packed by packAll
+     */
+    private boolean fragileBeforeBatch;
+
     /**
      * Creates an empty medium-sized box with the specified width, height,
      * length and comment.
@@ -131,7 +139,47 @@ public class Box extends Storage implements Packable {
     public void pack(Packable item)
             throws PackingException {
         super.pack(item);
+    }
+
+    /**
+     * Places items physically inside the box rather than comparing the sums of
+     * their dimensions.
+     * @throws IllegalStateException if the box is not empty
+     * @see Storage#setPlacementEngine(PlacementEngine)
+     */
+    public void enablePlacement()
+            throws IllegalStateException {
+        setPlacementEngine(new ExtremePointPlacement(getWidth(), getHeight(),
+                getLength()));
+    }
+
+    /**
+     * Adds all the given items to the box, or none of them.
+     * <p>
+     * If the batch is rejected, the box is left unchanged, including whether
+     * it is fragile.
+     * @param items items to add to the storages internal list, in order
+     * @return positions in the batch of the items that were rejected, in
+     *     increasing order; empty if all the items were packed
+     * @see Storage#packAll(Collection)
+     */
+    public List<Integer> packAll(Collection<? extends Packable> items) {
+        fragileBeforeBatch = isFragile;
+        return super.packAll(items);
+    }
+
+    /**
+     * Restores whether the box is fragile to what it was before the batch.
+     */
+    protected void batchRolledBack() {
+        isFragile = fragileBeforeBatch;
+    }
 
+    /**
+     * Marks the box as fragile if a fragile item was packed.
+     * @param item item that was added
+     */
+    protected void elementAdded(Packable item) {
         if (item instanceof Laptop) {
             isFragile = true;
         } else if (item instanceof Furniture) {
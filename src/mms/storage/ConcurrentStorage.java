@@ -0,0 +1,166 @@
+package mms.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import mms.exceptions.PackingException;
+import mms.utility.Packable;
+
+/**
+ * Allows several threads to pack into and unpack from the same storage.
+ * <p>
+ * A storage checks that an item fits (capacity, dimensions, and for some
+ * storages weight or packing order) and then adds it. If two threads pack at
+ * once, both can pass the checks before either adds its item, overfilling the
+ * storage. A concurrent storage wraps a storage and performs each operation
+ * while holding a lock, so the checks and the change they allow happen as one
+ * step. The rules of the wrapped Bag, Box, MovingTruck or other storage are
+ * applied unchanged.
+ * <p>
+ * Once a storage is wrapped, every thread must access it through the wrapper.
+ * Packing into a storage also updates the deep totals and owner index of the
+ * storages it is packed into, which the lock does not guard, so a wrapped
+ * storage cannot be nested: it must not already be packed into another
+ * storage, and is rejected as a bad item if packed into one later. Storages
+ * packed into the wrapped storage must likewise only be changed through the
+ * wrapper, by unpacking them first.
+ * Packing different storages from different threads does not contend, so
+ * loading many storages at once scales with the number of threads, while
+ * loading a single storage is limited to one thread at a time.
+ * @param <S> type of the wrapped storage
+ */
+public class ConcurrentStorage<S extends Storage> {
+    /**
+     * storage being packed and unpacked
+     */
+    private final S storage;
+
+    /**
+     * lock held while the storage is read or changed
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Creates a concurrent storage that guards the given storage.
+     * @param storage storage to guard
+     * @throws IllegalArgumentException if storage is null, is already
+     *     wrapped, or is packed into another storage
+     */
+    public ConcurrentStorage(S storage)
+            throws IllegalArgumentException {
+        if (storage == null) {
+            throw new IllegalArgumentException();
+        }
+        storage.guard();
+        this.storage = storage;
+    }
+
+    /**
+     * Returns the wrapped storage.
+     * The storage must not be changed through this reference while other
+     * threads may be using the concurrent storage.
+     * @return wrapped storage
+     */
+    public S getStorage() {
+        return storage;
+    }
+
+    /**
+     * Adds an item to the wrapped storage, following the packing rules of the
+     * wrapped storage, as a single atomic step.
+     * @param item item to add to the storage
+     * @throws PackingException if the wrapped storage rejects the item, in
+     *     which case the storage is unchanged
+     * @see Storage#pack(Packable)
+     */
+    public void pack(Packable item)
+            throws PackingException {
+        lock.lock();
+        try {
+            storage.pack(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds all the given items to the wrapped storage, or none of them, as a
+     * single atomic step.
+     * @param items items to add to the storage, in order
+     * @return positions in the batch of the items that were rejected, in
+     *     increasing order; empty if all the items were packed
+     * @see Storage#packAll(Collection)
+     */
+    public List<Integer> packAll(Collection<? extends Packable> items) {
+        lock.lock();
+        try {
+            return storage.packAll(items);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes an item from the wrapped storage, in the unpacking order of the
+     * wrapped storage, as a single atomic step.
+     * @return item removed from the storage; null if the storage is empty
+     * @see Storage#unpack()
+     */
+    public Packable unpack() {
+        lock.lock();
+        try {
+            return storage.unpack();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how many items are currently in the wrapped storage.
+     * @return number of items in the storage
+     */
+    public int getOccupiedCapacity() {
+        lock.lock();
+        try {
+            return storage.getOccupiedCapacity();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a new list containing all the items in the wrapped storage, as
+     * they were at a single point in time.
+     * @return new list containing all items in the storage
+     */
+    public List<Packable> getElements() {
+        lock.lock();
+        try {
+            return storage.getElements();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the given function to the wrapped storage while no other thread
+     * can use it, and returns the result.
+     * <p>
+     * This allows several operations, such as checking the contents and then
+     * packing, to be performed as one atomic step. The function must not keep
+     * a reference to the storage after it returns.
+     * @param action function to apply to the storage
+     * @param <R> type of the result
+     * @return result of the function
+     */
+    public <R> R atomically(Function<? super S, R> action) {
+        lock.lock();
+        try {
+            return action.apply(storage);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,277 @@
+package mms.storage;
+
+import java.util.NoSuchElementException;
+
+import mms.furniture.Furniture;
+import mms.personal.Personal;
+import mms.utility.Packable;
+
+/**
+ * The dimensions of the elements held by a storage, kept in parallel arrays of
+ * primitives next to the storage's list of elements.
+ * <p>
+ * Entries are kept in the same order as the storage's elements, so the entry
+ * at each index describes the element at the same index. Each entry is read
+ * from its element once, when the element is added, so that scans over many
+ * elements, such as summing their volumes, run over contiguous arrays of
+ * doubles rather than calling the getters of each element in turn, and the
+ * values taken off when an element is removed are exactly those added. Like a
+ * ring buffer, adding to the end and removing from either end take constant
+ * time.
+ * <p>
+ * Each entry takes 33 bytes: four doubles for the width, height, length and
+ * volume, and a one-byte tag. As the arrays double in size when full, up to
+ * twice that may be allocated per element. The volume is kept rather than
+ * worked out from the other three because items such as a moving truck report
+ * a volume other than their width by height by length.
+ */
+class DimensionStore {
+    /**
+     * tag of an element that is not one of the kinds below
+     */
+    static final byte OTHER = 0;
+    /**
+     * tag of a personal item
+     */
+    static final byte PERSONAL = 1;
+    /**
+     * tag of a furniture item
+     */
+    static final byte FURNITURE = 2;
+    /**
+     * tag of a storage packed inside another storage
+     */
+    static final byte STORAGE = 3;
+
+    /**
+     * number of slots allocated when the first entry is added
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * width of each element in cm, wrapping around from the end to the start
+     */
+    private double[] widths = new double[0];
+    /**
+     * height of each element in cm, in the same slots as the widths
+     */
+    private double[] heights = new double[0];
+    /**
+     * length of each element in cm, in the same slots as the widths
+     */
+    private double[] lengths = new double[0];
+    /**
+     * volume of each element in cm3, in the same slots as the widths
+     */
+    private double[] volumes = new double[0];
+
+    /**
+     * kind of each element, in the same slots as the widths
+     */
+    private byte[] tags = new byte[0];
+
+    /**
+     * index of the slot holding the first entry
+     */
+    private int head = 0;
+
+    /**
+     * number of entries in this store
+     */
+    private int count = 0;
+
+    /**
+     * Creates an empty dimension store.
+     */
+    DimensionStore() {
+    }
+
+    /**
+     * Returns the tag for the kind of the given element.
+     * @param element element to tag
+     * @return PERSONAL, FURNITURE, STORAGE or OTHER
+     */
+    static byte tagOf(Packable element) {
+        if (element instanceof Personal) {
+            return PERSONAL;
+        }
+        if (element instanceof Furniture) {
+            return FURNITURE;
+        }
+        if (element instanceof Storage) {
+            return STORAGE;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Returns how many entries are in the store.
+     * @return number of entries in this store
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Returns the width of the element at the given position.
+     * @param index position of the element
+     * @return width of the element in cm
+     */
+    double width(int index) {
+        return widths[slot(index)];
+    }
+
+    /**
+     * Returns the height of the element at the given position.
+     * @param index position of the element
+     * @return height of the element in cm
+     */
+    double height(int index) {
+        return heights[slot(index)];
+    }
+
+    /**
+     * Returns the length of the element at the given position.
+     * @param index position of the element
+     * @return length of the element in cm
+     */
+    double length(int index) {
+        return lengths[slot(index)];
+    }
+
+    /**
+     * Returns the volume of the element at the given position.
+     * @param index position of the element
+     * @return volume of the element in cm3
+     */
+    double volume(int index) {
+        return volumes[slot(index)];
+    }
+
+    /**
+     * Returns the tag of the element at the given position.
+     * @param index position of the element
+     * @return tag of the element
+     */
+    byte tag(int index) {
+        return tags[slot(index)];
+    }
+
+    /**
+     * Adds an entry for the given element to the end of the store.
+     * @param element element to describe
+     */
+    void addLast(Packable element) {
+        if (count == widths.length) {
+            grow();
+        }
+        int last = slot(count);
+        widths[last] = element.getWidth();
+        heights[last] = element.getHeight();
+        lengths[last] = element.getLength();
+        volumes[last] = element.getVolume();
+        tags[last] = tagOf(element);
+        count++;
+    }
+
+    /**
+     * Removes the first entry of the store. Its dimensions can no longer be
+     * read.
+     * @throws NoSuchElementException if the store is empty
+     */
+    void removeFirst() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        head = head + 1 == widths.length ? 0 : head + 1;
+        count--;
+    }
+
+    /**
+     * Removes the last entry of the store. Its dimensions can no longer be
+     * read.
+     * @throws NoSuchElementException if the store is empty
+     */
+    void removeLast() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        count--;
+    }
+
+    /**
+     * Returns the sum of the volumes of the given number of elements starting
+     * at the given position.
+     * <p>
+     * The entries are summed in at most two runs of consecutive slots, each a
+     * simple loop over the arrays.
+     * @param from position of the first element to sum
+     * @param number number of elements to sum
+     * @return sum of the volumes of those elements in cm3
+     * @throws IndexOutOfBoundsException if from < 0, number < 0 or
+     *     from + number > size()
+     */
+    double sumVolumes(int from, int number) {
+        if (from < 0 || number < 0 || from > count - number) {
+            throw new IndexOutOfBoundsException(from);
+        }
+        if (number == 0) {
+            return 0;
+        }
+        int start = slot(from);
+        // slots up to the end of the arrays, then from the start if wrapped
+        int firstRun = Math.min(number, widths.length - start);
+        return volumeOfSlots(start, start + firstRun)
+                + volumeOfSlots(0, number - firstRun);
+    }
+
+    /**
+     * Returns the sum of the volumes of the entries in the slots from start
+     * (inclusive) to end (exclusive).
+     */
+    private double volumeOfSlots(int start, int end) {
+        double volume = 0;
+        for (int slot = start; slot < end; slot++) {
+            volume += volumes[slot];
+        }
+        return volume;
+    }
+
+    /**
+     * Returns the array slot of the entry at the given position.
+     */
+    private int slot(int index) {
+        int slot = head + index;
+        return slot < widths.length ? slot : slot - widths.length;
+    }
+
+    /**
+     * Doubles the number of slots, moving the first entry to slot zero.
+     */
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, widths.length * 2);
+        widths = unwrap(widths, new double[capacity]);
+        heights = unwrap(heights, new double[capacity]);
+        lengths = unwrap(lengths, new double[capacity]);
+        volumes = unwrap(volumes, new double[capacity]);
+        byte[] grownTags = new byte[capacity];
+        // entries from the head to the end of the array, then the wrapped rest
+        int firstRun = Math.min(count, tags.length - head);
+        System.arraycopy(tags, head, grownTags, 0, firstRun);
+        System.arraycopy(tags, 0, grownTags, firstRun, count - firstRun);
+        tags = grownTags;
+        head = 0;
+    }
+
+    /**
+     * Copies the entries of the given column into the start of the grown
+     * column, in order, and returns the grown column.
+     */
+    private double[] unwrap(double[] column, double[] grown) {
+        // entries from the head to the end of the array, then the wrapped rest
+        int firstRun = Math.min(count, column.length - head);
+        System.arraycopy(column, head, grown, 0, firstRun);
+        System.arraycopy(column, 0, grown, firstRun, count - firstRun);
+        return grown;
+    }
+}
\ No newline at end of file
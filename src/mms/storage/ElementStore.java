@@ -0,0 +1,44 @@
+package mms.storage;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * The list of elements held by a storage.
+ * <p>
+ * Elements are kept in insertion order. An element store only needs to add
+ * elements to the end and remove them from either end, which every
+ * implementation does in constant time, along with reading any index.
+ * @param <E> type of the elements in this store
+ */
+abstract class ElementStore<E> extends AbstractList<E> implements RandomAccess {
+    /**
+     * Adds an element to the end of the store.
+     * @param element element to add
+     * @return true
+     */
+    public boolean add(E element) {
+        addLast(element);
+        return true;
+    }
+
+    /**
+     * Adds an element to the end of the store.
+     * @param element element to add
+     */
+    abstract void addLast(E element);
+
+    /**
+     * Removes and returns the first element of the store.
+     * @return first element of this store
+     * @throws java.util.NoSuchElementException if the store is empty
+     */
+    abstract E removeFirst();
+
+    /**
+     * Removes and returns the last element of the store.
+     * @return last element of this store
+     * @throws java.util.NoSuchElementException if the store is empty
+     */
+    abstract E removeLast();
+}
\ No newline at end of file
@@ -0,0 +1,565 @@
+package mms.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import mms.utility.Packable;
+
+/**
+ * A placement engine that places items at extreme points, trying each of an
+ * item's orientations.
+ * <p>
+ * Extreme points are the corners next to items already placed, where a new
+ * item can sit flush against its neighbours. The space starts with a single
+ * extreme point at its back bottom left corner. Each item placed adds the
+ * points beside, on top of and in front of it. Points are tried from the back
+ * of the space forwards, then bottom up, then left to right, and each item is
+ * placed at the first point and orientation where it fits. Space freed by
+ * removing an item is reused from the item's corner.
+ * <p>
+ * Occupied space is indexed by a uniform grid of cells, so checking whether an
+ * item overlaps its neighbours only examines the items in the cells it covers
+ * rather than every item placed. Finding a position also avoids trying most
+ * points:
+ *     points covered by an item are discarded as they are found,
+ *     each point remembers the last few item sizes that did not fit there, so
+ *         an item at least as large on every side is not tried there again,
+ *     points where several item sizes did not fit become dormant, and are
+ *         only tried once no other point fits, and
+ *     an item at least as large as one of the last few items that did not
+ *         fit anywhere, or larger than the free volume, is rejected without
+ *         trying any point.
+ * Items only ever fit in less space as more are placed, so what is remembered
+ * holds until space is freed. Probing for a position remembers none of this,
+ * so probes do not change where later items are placed.
+ * <p>
+ * Items are placed in the order they are given. Packing a batch of items in
+ * decreasing order of volume (first fit decreasing) usually leaves less wasted
+ * space.
+ */
+public class ExtremePointPlacement implements PlacementEngine {
+    /**
+     * number of grid cells along each side of the space
+     */
+    private static final int CELLS = 16;
+
+    /**
+     * the six orders in which an item's width, height and length can be laid
+     * along the width, height and length of the space
+     */
+    private static final int[][] ORIENTATIONS = {
+        {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+    };
+
+    /**
+     * number of rejected item sizes remembered at each point
+     */
+    private static final int REJECTIONS = 4;
+
+    /**
+     * number of rejected item sizes after which a point becomes dormant
+     */
+    private static final int DORMANT_AFTER = 2;
+
+    /**
+     * A position where an item may be placed.
+     */
+    private static class Point {
+        private final double x;
+        private final double y;
+        private final double z;
+
+        /**
+         * sorted sides of the most recent items that did not fit at this
+         * point in any orientation, oldest first replaced
+         */
+        private final double[][] rejectedSides = new double[REJECTIONS][];
+
+        /**
+         * position in rejectedSides to record the next rejection at
+         */
+        private int nextRejection = 0;
+
+        /**
+         * number of item sizes rejected here since space was last freed
+         */
+        private int rejections = 0;
+
+        /**
+         * value of freeCount when rejectedSides was recorded
+         */
+        private int rejectedAt;
+
+        /**
+         * Returns whether an item with the given sorted sides is known not to
+         * fit at this point.
+         */
+        private boolean rejects(double[] sortedSides, int freeCount) {
+            if (rejectedAt != freeCount) {
+                return false;
+            }
+            for (double[] rejected : rejectedSides) {
+                if (covers(sortedSides, rejected)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Records that an item with the given sorted sides did not fit at this
+         * point, forgetting earlier rejections if space has since been freed.
+         * Returns whether enough item sizes have now been rejected here for
+         * the point to become dormant.
+         */
+        private boolean reject(double[] sortedSides, int freeCount) {
+            if (rejectedAt != freeCount) {
+                Arrays.fill(rejectedSides, null);
+                nextRejection = 0;
+                rejections = 0;
+                rejectedAt = freeCount;
+            }
+            rejectedSides[nextRejection] = sortedSides;
+            nextRejection = (nextRejection + 1) % REJECTIONS;
+            rejections++;
+            return rejections >= DORMANT_AFTER;
+        }
+
+        private Point(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    /**
+     * order in which points are tried, back to front, bottom to top, then
+     * left to right
+     */
+    private static final Comparator<Point> POINT_ORDER =
+            Comparator.<Point>comparingDouble(point -> point.z)
+                    .thenComparingDouble(point -> point.y)
+                    .thenComparingDouble(point -> point.x);
+
+    /**
+     * width of the space in cm
+     */
+    private final double width;
+    /**
+     * height of the space in cm
+     */
+    private final double height;
+    /**
+     * length of the space in cm
+     */
+    private final double length;
+
+    /**
+     * width of a grid cell in cm
+     */
+    private final double cellWidth;
+    /**
+     * height of a grid cell in cm
+     */
+    private final double cellHeight;
+    /**
+     * length of a grid cell in cm
+     */
+    private final double cellLength;
+
+    /**
+     * placements overlapping each grid cell, created as cells are first used
+     */
+    private final List<List<Placement>> cells;
+
+    /**
+     * points where items may be placed, in the order they are tried
+     */
+    private final TreeSet<Point> points = new TreeSet<>(POINT_ORDER);
+
+    /**
+     * points where several different item sizes have not fit, tried only
+     * when no other point fits
+     */
+    private final TreeSet<Point> dormantPoints = new TreeSet<>(POINT_ORDER);
+
+    /**
+     * placement that most recently blocked a candidate position; null if
+     * none, or if it has since been freed
+     */
+    private Placement lastBlocker = null;
+
+    /**
+     * record of the last few item sizes that did not fit at any point
+     */
+    private final Point anywhere = new Point(0, 0, 0);
+
+    /**
+     * number of times space has been freed, after which items that did not
+     * fit before may fit
+     */
+    private int freeCount = 0;
+
+    /**
+     * volume of the space not occupied by any placement in cm3
+     */
+    private double freeVolume;
+
+    /**
+     * Creates an empty placement engine for a space of the given width,
+     * height and length.
+     * @param width width of the space in cm
+     * @param height height of the space in cm
+     * @param length length of the space in cm
+     * @throws IllegalArgumentException if width, height or length are less than
+     *     or equal to zero
+     */
+    public ExtremePointPlacement(double width,
+                                 double height,
+                                 double length)
+            throws IllegalArgumentException {
+        if (width <= 0 | height <= 0 | length <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.width = width;
+        this.height = height;
+        this.length = length;
+        cellWidth = width / CELLS;
+        cellHeight = height / CELLS;
+        cellLength = length / CELLS;
+        cells = new ArrayList<>(CELLS * CELLS * CELLS);
+        for (int cell = 0; cell < CELLS * CELLS * CELLS; cell++) {
+            cells.add(null);
+        }
+        freeVolume = width * height * length;
+        points.add(new Point(0, 0, 0));
+    }
+
+    /**
+     * Returns the first extreme point and orientation at which the given item
+     * fits without overlapping any occupied space.
+     * @param item item to find a position for
+     * @return placement for the item; null if the item does not fit
+     */
+    public Placement find(Packable item) {
+        return find(item, true);
+    }
+
+    /**
+     * Returns the position find(Packable) would return for the given item,
+     * without discarding or moving points, or recording the item as rejected
+     * anywhere.
+     * @param item item to find a position for
+     * @return placement for the item; null if the item does not fit
+     */
+    public Placement probe(Packable item) {
+        return find(item, false);
+    }
+
+    /**
+     * Returns the first extreme point and orientation at which the given item
+     * fits, optionally remembering what was learned about the points tried.
+     */
+    private Placement find(Packable item, boolean remember) {
+        double[] sides = {item.getWidth(), item.getHeight(), item.getLength()};
+        if (sides[0] * sides[1] * sides[2] > freeVolume) {
+            return null;
+        }
+        double[] sortedSides = sides.clone();
+        Arrays.sort(sortedSides);
+        if (anywhere.rejects(sortedSides, freeCount)) {
+            // no larger item can fit where a smaller one did not
+            return null;
+        }
+        Placement placement = findAt(points, sides, sortedSides, remember,
+                remember);
+        if (placement == null) {
+            placement = findAt(dormantPoints, sides, sortedSides, remember,
+                    false);
+        }
+        if (placement == null && remember) {
+            anywhere.reject(sortedSides, freeCount);
+        }
+        return placement;
+    }
+
+    /**
+     * Returns the first of the given points and orientation at which an item
+     * with the given sides fits. If remembering, covered points are discarded,
+     * the points where the item does not fit record it, and are optionally
+     * moved to the dormant points.
+     */
+    private Placement findAt(TreeSet<Point> candidatePoints, double[] sides,
+                             double[] sortedSides, boolean remember,
+                             boolean makeDormant) {
+        Iterator<Point> candidates = candidatePoints.iterator();
+        while (candidates.hasNext()) {
+            Point point = candidates.next();
+            if (point.rejects(sortedSides, freeCount)) {
+                // a smaller item did not fit here
+                continue;
+            }
+            if (isCovered(point)) {
+                // no item can be placed inside another item
+                if (remember) {
+                    candidates.remove();
+                }
+                continue;
+            }
+            for (int index = 0; index < ORIENTATIONS.length; index++) {
+                int[] orientation = ORIENTATIONS[index];
+                if (repeatsOrientation(sides, index)) {
+                    // the same extents were already tried at this point
+                    continue;
+                }
+                if (isFree(point.x, point.y, point.z, sides[orientation[0]],
+                        sides[orientation[1]], sides[orientation[2]],
+                        remember)) {
+                    return new Placement(point.x, point.y, point.z,
+                            sides[orientation[0]],
+                            sides[orientation[1]],
+                            sides[orientation[2]]);
+                }
+            }
+            if (remember && point.reject(sortedSides, freeCount)
+                    && makeDormant) {
+                candidates.remove();
+                dormantPoints.add(point);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks the space of the given placement as occupied and adds the extreme
+     * points beside, on top of and in front of it.
+     * @param placement placement returned by find(Packable)
+     */
+    public void occupy(Placement placement) {
+        forEachCell(placement, true, cell -> cell.add(placement));
+        freeVolume -= volumeOf(placement);
+        Point corner = new Point(placement.getX(), placement.getY(),
+                placement.getZ());
+        points.remove(corner);
+        dormantPoints.remove(corner);
+        addPoint(placement.getX() + placement.getWidth(),
+                placement.getY(), placement.getZ());
+        addPoint(placement.getX(),
+                placement.getY() + placement.getHeight(), placement.getZ());
+        addPoint(placement.getX(), placement.getY(),
+                placement.getZ() + placement.getLength());
+    }
+
+    /**
+     * Marks the space of the given placement as free and makes its corner an
+     * extreme point again.
+     * @param placement placement to free
+     */
+    public void free(Placement placement) {
+        forEachCell(placement, false, cell -> {
+            // remove this placement, not an equal one elsewhere
+            for (int index = 0; index < cell.size(); index++) {
+                if (cell.get(index) == placement) {
+                    cell.remove(index);
+                    return;
+                }
+            }
+        });
+        if (lastBlocker == placement) {
+            lastBlocker = null;
+        }
+        // items rejected before may fit in the freed space
+        freeCount++;
+        freeVolume += volumeOf(placement);
+        Point corner = new Point(placement.getX(), placement.getY(),
+                placement.getZ());
+        dormantPoints.remove(corner);
+        points.add(corner);
+    }
+
+    /**
+     * Returns the volume of the space not occupied by any placement in cm3.
+     * @return free volume of this space
+     */
+    public double getFreeVolume() {
+        return freeVolume;
+    }
+
+    /**
+     * Returns whether a box at the given position with the given extents lies
+     * within the space and overlaps no occupied space, optionally remembering
+     * the placement blocking it.
+     */
+    private boolean isFree(double x, double y, double z,
+                           double boxWidth, double boxHeight, double boxLength,
+                           boolean remember) {
+        if (x + boxWidth > width || y + boxHeight > height
+                || z + boxLength > length) {
+            return false;
+        }
+        // neighbouring candidates are usually blocked by the same placement
+        if (lastBlocker != null
+                && overlaps(lastBlocker, x, y, z, boxWidth, boxHeight, boxLength)) {
+            return false;
+        }
+        int lastX = cellOf(x + boxWidth, cellWidth);
+        int lastY = cellOf(y + boxHeight, cellHeight);
+        int lastZ = cellOf(z + boxLength, cellLength);
+        for (int cellX = cellOf(x, cellWidth); cellX <= lastX; cellX++) {
+            for (int cellY = cellOf(y, cellHeight); cellY <= lastY; cellY++) {
+                for (int cellZ = cellOf(z, cellLength); cellZ <= lastZ; cellZ++) {
+                    List<Placement> cell = cells.get(cellIndex(cellX, cellY, cellZ));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int index = 0; index < cell.size(); index++) {
+                        Placement placement = cell.get(index);
+                        if (overlaps(placement, x, y, z,
+                                boxWidth, boxHeight, boxLength)) {
+                            if (remember) {
+                                lastBlocker = placement;
+                            }
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the placement overlaps a box at the given position with
+     * the given extents.
+     */
+    private static boolean overlaps(Placement placement,
+                                    double x, double y, double z,
+                                    double boxWidth, double boxHeight,
+                                    double boxLength) {
+        return placement.getX() < x + boxWidth
+                && x < placement.getX() + placement.getWidth()
+                && placement.getY() < y + boxHeight
+                && y < placement.getY() + placement.getHeight()
+                && placement.getZ() < z + boxLength
+                && z < placement.getZ() + placement.getLength();
+    }
+
+    /**
+     * Returns whether the point lies inside or on the back, bottom or left
+     * face of an occupied placement.
+     */
+    private boolean isCovered(Point point) {
+        List<Placement> cell = cells.get(cellIndex(cellOf(point.x, cellWidth),
+                cellOf(point.y, cellHeight), cellOf(point.z, cellLength)));
+        if (cell == null) {
+            return false;
+        }
+        for (int index = 0; index < cell.size(); index++) {
+            Placement placement = cell.get(index);
+            if (placement.getX() <= point.x
+                    && point.x < placement.getX() + placement.getWidth()
+                    && placement.getY() <= point.y
+                    && point.y < placement.getY() + placement.getHeight()
+                    && placement.getZ() <= point.z
+                    && point.z < placement.getZ() + placement.getLength()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether each of the sorted sides is at least as long as the
+     * corresponding sorted side of a rejected item, so that the item cannot
+     * fit wherever the rejected item did not.
+     */
+    private static boolean covers(double[] sortedSides, double[] rejected) {
+        return rejected != null
+                && sortedSides[0] >= rejected[0]
+                && sortedSides[1] >= rejected[1]
+                && sortedSides[2] >= rejected[2];
+    }
+
+    /**
+     * Returns whether laying the sides in the given orientation gives the same
+     * extents as an earlier orientation, as happens when two sides are equal.
+     */
+    private static boolean repeatsOrientation(double[] sides, int orientation) {
+        for (int earlier = 0; earlier < orientation; earlier++) {
+            if (sides[ORIENTATIONS[earlier][0]] == sides[ORIENTATIONS[orientation][0]]
+                    && sides[ORIENTATIONS[earlier][1]] == sides[ORIENTATIONS[orientation][1]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an extreme point if it lies inside the space.
+     */
+    private void addPoint(double x, double y, double z) {
+        if (x < width && y < height && z < length) {
+            Point point = new Point(x, y, z);
+            if (!dormantPoints.contains(point)) {
+                points.add(point);
+            }
+        }
+    }
+
+    /**
+     * Applies the action to the list of placements of every grid cell the
+     * placement covers, optionally creating the lists of unused cells.
+     */
+    private void forEachCell(Placement placement, boolean create,
+                             Consumer<List<Placement>> action) {
+        int firstX = cellOf(placement.getX(), cellWidth);
+        int lastX = cellOf(placement.getX() + placement.getWidth(), cellWidth);
+        int firstY = cellOf(placement.getY(), cellHeight);
+        int lastY = cellOf(placement.getY() + placement.getHeight(), cellHeight);
+        int firstZ = cellOf(placement.getZ(), cellLength);
+        int lastZ = cellOf(placement.getZ() + placement.getLength(), cellLength);
+        for (int cellX = firstX; cellX <= lastX; cellX++) {
+            for (int cellY = firstY; cellY <= lastY; cellY++) {
+                for (int cellZ = firstZ; cellZ <= lastZ; cellZ++) {
+                    int index = cellIndex(cellX, cellY, cellZ);
+                    List<Placement> cell = cells.get(index);
+                    if (cell == null && create) {
+                        cell = new ArrayList<>();
+                        cells.set(index, cell);
+                    }
+                    if (cell != null) {
+                        action.accept(cell);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index along one side of the grid cell containing the given
+     * coordinate.
+     */
+    private static int cellOf(double coordinate, double cellSize) {
+        return Math.max(0, Math.min(CELLS - 1, (int) (coordinate / cellSize)));
+    }
+
+    /**
+     * Returns the position in the list of cells of the given grid cell.
+     */
+    private static int cellIndex(int cellX, int cellY, int cellZ) {
+        return (cellX * CELLS + cellY) * CELLS + cellZ;
+    }
+
+    /**
+     * Returns the volume of a placement in cm3.
+     */
+    private static double volumeOf(Placement placement) {
+        return placement.getWidth() * placement.getHeight()
+                * placement.getLength();
+    }
+}
\ No newline at end of file
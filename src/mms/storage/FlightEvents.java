@@ -0,0 +1,255 @@
+package mms.storage;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import mms.utility.Packable;
+
+/**
+ * JDK Flight Recorder events for the operations of storages.
+ * <p>
+ * Each event records how long an operation took, together with the class,
+ * occupancy and capacity of the storage it was called on, so that hotspots in
+ * a recording can be related to the state of the storages in JDK Mission
+ * Control. The events are grouped under the category MMS / Storage and are
+ * named mms.storage.Pack, mms.storage.Unpack and mms.storage.Render.
+ * <p>
+ * Storages create and begin an event with startPack(), startUnpack() or
+ * startRender(), which return null unless a running recording has the event
+ * enabled, and set the fields and commit only if shouldCommit() returns true.
+ * Each event class asks its own event type whether it is enabled, which the
+ * flight recorder keeps up to date, so while nothing is being recorded an
+ * operation reads one field and creates no event.
+ * <p>
+ * The event classes, and so the jdk.jfr module, are only loaded once an
+ * event is first started, and never if the runtime does not include the
+ * module, in which case no events are created.
+ */
+final class FlightEvents {
+    /**
+     * whether the runtime includes the jdk.jfr module
+     */
+    private static final boolean AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    /**
+     * Not instantiable.
+     */
+    private FlightEvents() {
+    }
+
+    /**
+     * Returns a new event, already begun, for packing a storage.
+     * @return begun event; null if the event is not being recorded
+     */
+    static Pack startPack() {
+        return AVAILABLE ? Pack.start() : null;
+    }
+
+    /**
+     * Returns a new event, already begun, for unpacking a storage.
+     * @return begun event; null if the event is not being recorded
+     */
+    static Unpack startUnpack() {
+        return AVAILABLE ? Unpack.start() : null;
+    }
+
+    /**
+     * Returns a new event, already begun, for rendering a storage.
+     * @return begun event; null if the event is not being recorded
+     */
+    static Render startRender() {
+        return AVAILABLE ? Render.start() : null;
+    }
+
+    /**
+     * An item packed into, or rejected by, a storage.
+     */
+    @Name("mms.storage.Pack")
+    @Label("Pack")
+    @Category({"MMS", "Storage"})
+    @Description("An item packed into or rejected by a storage")
+    @StackTrace(false)
+    static class Pack extends Event {
+        /**
+         * type of this event, enabled while a recording includes it
+         */
+        private static final EventType TYPE =
+                EventType.getEventType(Pack.class);
+
+        /**
+         * Returns a new event, already begun, for packing a storage.
+         * @return begun event; null if the event is not being recorded
+         */
+        private static Pack start() {
+            if (!TYPE.isEnabled()) {
+                return null;
+            }
+            Pack event = new Pack();
+            event.begin();
+            return event;
+        }
+
+        @Label("Container Type")
+        Class<?> containerType;
+
+        @Label("Occupancy")
+        @Description("Number of items in the storage after packing")
+        int occupancy;
+
+        @Label("Capacity")
+        int capacity;
+
+        @Label("Item Type")
+        Class<?> itemType;
+
+        @Label("Outcome")
+        @Description("OK if the item was packed, otherwise the reason it was "
+                + "rejected")
+        String outcome;
+
+        /**
+         * Sets the fields of the event and commits it.
+         * @param storage storage the item was packed into
+         * @param item item packed; may be null
+         * @param result result of packing the item
+         */
+        void commit(Storage storage, Packable item, PackResult result) {
+            containerType = storage.getClass();
+            occupancy = storage.getOccupiedCapacity();
+            capacity = storage.getCapacity();
+            itemType = item == null ? null : item.getClass();
+            outcome = result.name();
+            commit();
+        }
+    }
+
+    /**
+     * An item unpacked from a storage.
+     */
+    @Name("mms.storage.Unpack")
+    @Label("Unpack")
+    @Category({"MMS", "Storage"})
+    @Description("An item unpacked from a storage")
+    @StackTrace(false)
+    static class Unpack extends Event {
+        /**
+         * type of this event, enabled while a recording includes it
+         */
+        private static final EventType TYPE =
+                EventType.getEventType(Unpack.class);
+
+        /**
+         * Returns a new event, already begun, for unpacking a storage.
+         * @return begun event; null if the event is not being recorded
+         */
+        private static Unpack start() {
+            if (!TYPE.isEnabled()) {
+                return null;
+            }
+            Unpack event = new Unpack();
+            event.begin();
+            return event;
+        }
+
+        @Label("Container Type")
+        Class<?> containerType;
+
+        @Label("Occupancy")
+        @Description("Number of items in the storage after unpacking")
+        int occupancy;
+
+        @Label("Capacity")
+        int capacity;
+
+        @Label("Item Type")
+        Class<?> itemType;
+
+        @Label("Last In")
+        @Description("Whether the most recently packed item was unpacked, as "
+                + "a moving truck unpacks its furniture, rather than the "
+                + "first")
+        boolean lastIn;
+
+        /**
+         * Sets the fields of the event and commits it.
+         * @param storage storage the item was unpacked from
+         * @param item item unpacked
+         * @param lastIn true if the most recently packed item was unpacked
+         */
+        void commit(Storage storage, Packable item, boolean lastIn) {
+            containerType = storage.getClass();
+            occupancy = storage.getOccupiedCapacity();
+            capacity = storage.getCapacity();
+            itemType = item.getClass();
+            this.lastIn = lastIn;
+            commit();
+        }
+    }
+
+    /**
+     * A storage and its elements rendered as text by toString(int).
+     */
+    @Name("mms.storage.Render")
+    @Label("Render")
+    @Category({"MMS", "Storage"})
+    @Description("A storage and its elements rendered as text")
+    @StackTrace(false)
+    static class Render extends Event {
+        /**
+         * type of this event, enabled while a recording includes it
+         */
+        private static final EventType TYPE =
+                EventType.getEventType(Render.class);
+
+        /**
+         * Returns a new event, already begun, for rendering a storage.
+         * @return begun event; null if the event is not being recorded
+         */
+        private static Render start() {
+            if (!TYPE.isEnabled()) {
+                return null;
+            }
+            Render event = new Render();
+            event.begin();
+            return event;
+        }
+
+        @Label("Container Type")
+        Class<?> containerType;
+
+        @Label("Occupancy")
+        int occupancy;
+
+        @Label("Capacity")
+        int capacity;
+
+        @Label("Level")
+        @Description("Number of tabs the storage was indented by")
+        int level;
+
+        @Label("Characters")
+        @Description("Length of the text rendered")
+        int characters;
+
+        /**
+         * Sets the fields of the event and commits it.
+         * @param storage storage rendered
+         * @param level number of tabs the storage was indented by
+         * @param characters length of the text rendered
+         */
+        void commit(Storage storage, int level, int characters) {
+            containerType = storage.getClass();
+            occupancy = storage.getOccupiedCapacity();
+            capacity = storage.getCapacity();
+            this.level = level;
+            this.characters = characters;
+            commit();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package mms.storage;
+
+/**
+ * The latencies recorded for one operation on one class of storage, as they
+ * were when a MetricsSnapshot was taken.
+ * <p>
+ * Latencies are counted in logarithmic buckets, so values read from the
+ * snapshot are accurate to within 25%.
+ * @see StorageMetrics
+ */
+public class HistogramSnapshot {
+    /**
+     * number of latencies counted in each bucket
+     */
+    private final long[] counts;
+
+    /**
+     * number of latencies recorded
+     */
+    private final long count;
+
+    /**
+     * sum of the latencies recorded in nanoseconds
+     */
+    private final long total;
+
+    /**
+     * largest latency recorded in nanoseconds
+     */
+    private final long max;
+
+    /**
+     * Creates a snapshot of a histogram.
+     * @param counts number of latencies counted in each bucket
+     * @param count number of latencies recorded
+     * @param total sum of the latencies recorded in nanoseconds
+     * @param max largest latency recorded in nanoseconds
+     */
+    HistogramSnapshot(long[] counts, long count, long total, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.total = total;
+        this.max = max;
+    }
+
+    /**
+     * Returns how many latencies were recorded. When latencies are sampled,
+     * this is the number of sampled calls, not the number of calls.
+     * @return number of latencies recorded
+     * @see StorageMetrics#enable(int)
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the latencies recorded.
+     * @return mean latency in nanoseconds; zero if none were recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Returns the largest latency recorded.
+     * @return largest latency in nanoseconds; zero if none were recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the latency that the given percentage of the recorded latencies
+     * are at or below, rounded up to the top of its bucket.
+     * @param percentile percentage of the latencies, from 0 to 100
+     * @return latency in nanoseconds, at most the largest latency recorded;
+     *     zero if none were recorded
+     * @throws IllegalArgumentException if percentile < 0 or percentile > 100
+     */
+    public long getValueAtPercentile(double percentile)
+            throws IllegalArgumentException {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException();
+        }
+        // number of latencies at or below the value to return
+        long wanted = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= wanted) {
+                return Math.min(LatencyHistogram.highestOf(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the human-readable string representation of the latencies.
+     * <p>
+     * The format of the string to return is:
+     *     n='count' mean='mean' p50='p50' p90='p90' p99='p99' max='max'
+     * where,
+     *     'count' is the number of latencies recorded,
+     *     'mean' is the mean latency in nanoseconds, rounded, and
+     *     'p50', 'p90', 'p99' and 'max' are the latencies in nanoseconds at
+     *         those percentiles and the largest latency.
+     * Example:
+     *     n=1024 mean=87 p50=79 p90=111 p99=319 max=4607
+     * @return string representation of this snapshot
+     */
+    public String toString() {
+        return "n=" + count
+                + " mean=" + Math.round(getMean())
+                + " p50=" + getValueAtPercentile(50)
+                + " p90=" + getValueAtPercentile(90)
+                + " p99=" + getValueAtPercentile(99)
+                + " max=" + max;
+    }
+
+    /**
+     * Returns the latencies as a JSON object, with the fields of toString()
+     * and the non-empty buckets, each as the smallest latency counted in the
+     * bucket and the number of latencies counted in it.
+     * Example:
+     *     {"count":3,"mean":85.0,"p50":95,"p90":100,"p99":100,"max":100,
+     *     "buckets":[[64,1],[80,1],[96,1]]}
+     * @return JSON representation of this snapshot
+     */
+    String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"count\":").append(count)
+                .append(",\"mean\":").append(getMean())
+                .append(",\"p50\":").append(getValueAtPercentile(50))
+                .append(",\"p90\":").append(getValueAtPercentile(90))
+                .append(",\"p99\":").append(getValueAtPercentile(99))
+                .append(",\"max\":").append(max)
+                .append(",\"buckets\":[");
+        boolean first = true;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] == 0) {
+                continue;
+            }
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('[').append(LatencyHistogram.lowestOf(bucket))
+                    .append(',').append(counts[bucket]).append(']');
+        }
+        return json.append("]}").toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package mms.storage;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that many threads may record into
+ * at once without locking.
+ * <p>
+ * Latencies are counted in logarithmic buckets: each power of two is split
+ * into SUB_BUCKETS equal buckets, so the bucket a latency is counted in is
+ * never more than 25% wider than the latency itself, from one nanosecond up
+ * to the largest long. Each bucket, the count and the sum are LongAdder
+ * counters, which spread updates from different threads over separate cells,
+ * so threads recording at once do not contend on a single value.
+ */
+class LatencyHistogram {
+    /**
+     * log2 of the number of buckets each power of two is split into
+     */
+    private static final int SUB_BUCKET_BITS = 2;
+
+    /**
+     * number of buckets each power of two is split into
+     */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * number of buckets, enough for every non-negative long
+     */
+    static final int BUCKETS = bucketOf(Long.MAX_VALUE) + 1;
+
+    /**
+     * number of latencies counted in each bucket
+     */
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    /**
+     * number of latencies recorded
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * sum of the latencies recorded in nanoseconds
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * largest latency recorded in nanoseconds
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates an empty histogram.
+     */
+    LatencyHistogram() {
+        for (int index = 0; index < BUCKETS; index++) {
+            buckets[index] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a latency.
+     * @param nanos latency in nanoseconds; negative latencies, from a clock
+     *     that went backwards, are recorded as zero
+     */
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucketOf(nanos)].increment();
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Returns a copy of the counts of the histogram as they are now. Counts
+     * recorded while the copy is made may be partly included.
+     * @return snapshot of this histogram
+     */
+    HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int index = 0; index < BUCKETS; index++) {
+            counts[index] = buckets[index].sum();
+        }
+        return new HistogramSnapshot(counts, count.sum(), total.sum(),
+                max.get());
+    }
+
+    /**
+     * Returns the index of the bucket the given non-negative latency is
+     * counted in.
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        // position of the highest set bit, at least SUB_BUCKET_BITS
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS))
+                & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the smallest latency counted in the bucket with the given index.
+     */
+    static long lowestOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Returns the largest latency counted in the bucket with the given index.
+     */
+    static long highestOf(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowestOf(bucket + 1) - 1;
+    }
+}
\ No newline at end of file
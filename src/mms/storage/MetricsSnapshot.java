@@ -0,0 +1,223 @@
+package mms.storage;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import mms.storage.StorageMetrics.ClassMetrics;
+import mms.storage.StorageMetrics.Operation;
+
+/**
+ * The counts and latencies of storage operations, for each class of storage,
+ * as they were when StorageMetrics.snapshot() was called.
+ * <p>
+ * A snapshot does not change as storages go on being used, so it can be
+ * read, compared with an earlier snapshot or exported at leisure.
+ * @see StorageMetrics
+ */
+public class MetricsSnapshot {
+    /**
+     * Counts and latencies of a single class of storage.
+     */
+    private static class ClassSnapshot {
+        /**
+         * number of calls to each operation
+         */
+        private final long[] calls = new long[Operation.values().length];
+
+        /**
+         * latencies of the sampled calls to each operation
+         */
+        private final HistogramSnapshot[] latencies =
+                new HistogramSnapshot[Operation.values().length];
+
+        /**
+         * number of items rejected for each reason
+         */
+        private final long[] rejections = new long[PackResult.values().length];
+    }
+
+    /**
+     * counts and latencies of each class of storage, ordered by class name
+     */
+    private final Map<Class<?>, ClassSnapshot> byClass =
+            new TreeMap<>(Comparator.comparing(Class::getName));
+
+    /**
+     * Copies the counters and histograms of each class of storage.
+     * @param metrics counters and histograms of each class of storage
+     */
+    MetricsSnapshot(Map<Class<?>, ClassMetrics> metrics) {
+        for (Map.Entry<Class<?>, ClassMetrics> entry : metrics.entrySet()) {
+            ClassMetrics classMetrics = entry.getValue();
+            ClassSnapshot snapshot = new ClassSnapshot();
+            for (int index = 0; index < snapshot.calls.length; index++) {
+                snapshot.calls[index] = classMetrics.calls[index].sum();
+                snapshot.latencies[index] =
+                        classMetrics.latencies[index].snapshot();
+            }
+            for (int index = 0; index < snapshot.rejections.length; index++) {
+                snapshot.rejections[index] = classMetrics.rejections[index].sum();
+            }
+            byClass.put(entry.getKey(), snapshot);
+        }
+    }
+
+    /**
+     * Returns how many times the given operation was called on storages of
+     * exactly the given class.
+     * @param type class of storage
+     * @param operation operation called
+     * @return number of calls; zero if the class was not used
+     */
+    public long getCalls(Class<? extends Storage> type, Operation operation) {
+        ClassSnapshot snapshot = byClass.get(type);
+        return snapshot == null ? 0 : snapshot.calls[operation.ordinal()];
+    }
+
+    /**
+     * Returns the latencies of the sampled calls to the given operation on
+     * storages of exactly the given class.
+     * @param type class of storage
+     * @param operation operation called
+     * @return latencies of the calls; null if the class was not used
+     */
+    public HistogramSnapshot getLatencies(Class<? extends Storage> type,
+                                          Operation operation) {
+        ClassSnapshot snapshot = byClass.get(type);
+        return snapshot == null ? null : snapshot.latencies[operation.ordinal()];
+    }
+
+    /**
+     * Returns how many items storages of exactly the given class rejected for
+     * the given reason, by pack(Packable), tryPack(Packable) or
+     * packAll(Collection). Each reason corresponds to the exception type
+     * given by PackResult.toException().
+     * @param type class of storage
+     * @param reason reason the items were rejected
+     * @return number of items rejected; zero if the class was not used
+     */
+    public long getRejections(Class<? extends Storage> type, PackResult reason) {
+        ClassSnapshot snapshot = byClass.get(type);
+        return snapshot == null ? 0 : snapshot.rejections[reason.ordinal()];
+    }
+
+    /**
+     * Returns the snapshot as human-readable text.
+     * <p>
+     * Each class of storage used is listed by simple name, in order of class
+     * name, followed by a line for each operation called and for each reason
+     * items were rejected:
+     *     'class'
+     *         'operation' calls='calls' 'latencies'
+     *         rejected 'reason' ('exception') 'count'
+     * where,
+     *     'latencies' is the string representation of the latencies of the
+     *         sampled calls, see HistogramSnapshot.toString(), and
+     *     'exception' is the simple name of the exception pack(Packable)
+     *         throws for the reason.
+     * Example:
+     *     Bag
+     *         PACK calls=4096 n=4096 mean=87 p50=79 p90=111 p99=319 max=4607
+     *         rejected BAD_ITEM (BadItemException) 12
+     * @return text representation of this snapshot
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Class<?>, ClassSnapshot> entry : byClass.entrySet()) {
+            ClassSnapshot snapshot = entry.getValue();
+            text.append(entry.getKey().getSimpleName()).append('\n');
+            for (Operation operation : Operation.values()) {
+                long calls = snapshot.calls[operation.ordinal()];
+                if (calls > 0) {
+                    text.append('\t').append(operation)
+                            .append(" calls=").append(calls).append(' ')
+                            .append(snapshot.latencies[operation.ordinal()])
+                            .append('\n');
+                }
+            }
+            for (PackResult reason : PackResult.values()) {
+                long count = snapshot.rejections[reason.ordinal()];
+                if (count > 0) {
+                    text.append("\trejected ").append(reason)
+                            .append(" (").append(exceptionName(reason))
+                            .append(") ").append(count).append('\n');
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Returns the snapshot as a JSON object, with a member for each class of
+     * storage used, named by its fully qualified class name. Only operations
+     * called and reasons items were rejected for are included.
+     * Example:
+     *     {"mms.storage.Bag":{"operations":{"PACK":{"calls":2,"latencies":
+     *     {"count":2,"mean":85.0,"p50":79,"p90":95,"p99":95,"max":85,
+     *     "buckets":[[64,1],[80,1]]}}},"rejections":{"BAD_ITEM":
+     *     {"exception":"BadItemException","count":1}}}}
+     * @return JSON representation of this snapshot
+     * @see HistogramSnapshot
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        boolean firstClass = true;
+        for (Map.Entry<Class<?>, ClassSnapshot> entry : byClass.entrySet()) {
+            ClassSnapshot snapshot = entry.getValue();
+            if (!firstClass) {
+                json.append(',');
+            }
+            firstClass = false;
+            json.append('"').append(entry.getKey().getName())
+                    .append("\":{\"operations\":{");
+            boolean first = true;
+            for (Operation operation : Operation.values()) {
+                long calls = snapshot.calls[operation.ordinal()];
+                if (calls == 0) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append('"').append(operation).append("\":{\"calls\":")
+                        .append(calls).append(",\"latencies\":")
+                        .append(snapshot.latencies[operation.ordinal()].toJson())
+                        .append('}');
+            }
+            json.append("},\"rejections\":{");
+            first = true;
+            for (PackResult reason : PackResult.values()) {
+                long count = snapshot.rejections[reason.ordinal()];
+                if (count == 0) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append('"').append(reason).append("\":{\"exception\":\"")
+                        .append(exceptionName(reason)).append("\",\"count\":")
+                        .append(count).append('}');
+            }
+            json.append("}}");
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Returns the text representation of this snapshot.
+     * @return text representation of this snapshot, see toText()
+     */
+    public String toString() {
+        return toText();
+    }
+
+    /**
+     * Returns the simple name of the exception thrown for the given reason.
+     */
+    private static String exceptionName(PackResult reason) {
+        return reason.toException().getClass().getSimpleName();
+    }
+}
\ No newline at end of file
@@ -1,8 +1,6 @@
 package mms.storage;
 
 import mms.exceptions.PackingException;
-import mms.exceptions.PackingOrderException;
-import mms.exceptions.StorageFullException;
 import mms.furniture.Furniture;
 import mms.utility.Packable;
 import mms.utility.Size;
@@ -20,6 +18,11 @@ public class MovingTruck extends Storage {
      */
     private int cabLength = 1500;
 
+    /**
+     * number of furniture items currently in the moving truck
+     */
+    private int furnitureCount = 0;
+
     /**
      * Creates an empty large-sized moving truck with the specified width,
      * height and length.
@@ -76,7 +79,25 @@ public class MovingTruck extends Storage {
      * @return volume of the storage area of this moving truck
      */
     public double getVolume() {
-        return getWidth() * getHeight() * (getLength() - cabLength);
+        return getWidth() * getHeight() * getStorageLength();
+    }
+
+    /**
+     * Returns the length of the storage area of the moving truck in cm.
+     * The length of the storage area is the length of the moving truck less
+     * the 1500 cm of the cab.
+     * @return length of the storage area of this moving truck
+     */
+    public double getStorageLength() {
+        return getLength() - cabLength;
+    }
+
+    /**
+     * Returns how many furniture items are currently in the moving truck.
+     * @return number of furniture items in this moving truck
+     */
+    public int getFurnitureCount() {
+        return furnitureCount;
     }
 
     /**
@@ -115,36 +136,118 @@ public class MovingTruck extends Storage {
      */
     public void pack(Packable item)
             throws PackingException {
+        super.pack(item);
+    }
+
+    /**
+     * Returns whether the given item could be added to the moving truck now,
+     * that is, it is in packing order and fits in accordance with the
+     * superclass, which checks the storage area.
+     * @param item item to check
+     * @return WRONG_ORDER if there is a furniture item on the moving truck
+     *     and the item is not furniture, otherwise the result of the
+     *     superclass
+     */
+    protected PackResult check(Packable item) {
         // furniture previously packed and new item not furniture
         if (furniturePreviouslyPacked() && !(item instanceof Furniture)) {
-            throw new PackingOrderException();
-        } else {
-            // total length of items in the moving truck
-            int totalItemsLength = 0;
-            for (Packable element : getElements()) {
-                totalItemsLength += element.getLength();
-            }
-            if (totalItemsLength + item.getLength() > (getLength() - cabLength)) {
-                throw new StorageFullException();
-            }
+            return PackResult.WRONG_ORDER;
+        }
+        return super.check(item);
+    }
+
+    /**
+     * Returns whether the item fits within the length of the storage area and
+     * in accordance with the superclass.
+     * @param item item to check
+     * @return true if the item fits within the dimensions of the moving truck;
+     *     false otherwise
+     */
+    protected boolean fitsDimensions(Packable item) {
+        return fitsStorageArea(item) && super.fitsDimensions(item);
+    }
+
+    /**
+     * Returns how many copies of the given item could be packed into the
+     * moving truck one after another, starting now, that is, none if it is
+     * out of packing order, and otherwise as many as the superclass allows.
+     * @param item item to count copies of
+     * @return number of copies of the item that could be packed
+     */
+    public int countFits(Packable item) {
+        if (furniturePreviouslyPacked() && !(item instanceof Furniture)) {
+            return 0;
+        }
+        return super.countFits(item);
+    }
+
+    /**
+     * Returns how many copies of the given item fit within the length of the
+     * storage area and in accordance with the superclass.
+     * @param item item to count copies of
+     * @return number of copies that fit within the dimensions of the moving
+     *     truck
+     */
+    protected long countFitsDimensions(Packable item) {
+        return Math.min(copiesWithin(getStorageLength() - getTotalItemsLength(),
+                item.getLength()), super.countFitsDimensions(item));
+    }
+
+    /**
+     * Returns how much the sum of the lengths of the items in the moving
+     * truck may still grow by before it is greater than the length of the
+     * storage area behind the cab, in cm.
+     * @return length of the storage area less the sum of the lengths of the
+     *     items in this moving truck
+     */
+    public double getRemainingLength() {
+        return getStorageLength() - getTotalItemsLength();
+    }
+
+    /**
+     * Places items physically inside the storage area of the moving truck,
+     * behind the cab, rather than comparing the sums of their dimensions.
+     * @throws IllegalStateException if the moving truck is not empty
+     * @see Storage#setPlacementEngine(PlacementEngine)
+     */
+    public void enablePlacement()
+            throws IllegalStateException {
+        setPlacementEngine(new ExtremePointPlacement(getWidth(), getHeight(),
+                getStorageLength()));
+    }
+
+    /**
+     * Counts a packed item if it is furniture.
+     * @param item item that was added
+     */
+    protected void elementAdded(Packable item) {
+        if (item instanceof Furniture) {
+            furnitureCount++;
+        }
+    }
+
+    /**
+     * Stops counting an unpacked item if it is furniture.
+     * @param item item that was removed
+     */
+    protected void elementRemoved(Packable item) {
+        if (item instanceof Furniture) {
+            furnitureCount--;
         }
-        // otherwise, pack in accordance with superclass
-        super.pack(item);
     }
 
     /**
      * if furniture is previously packed in the moving truck
      */
     private boolean furniturePreviouslyPacked() {
-        boolean furniturePreviouslyPacked = false;
-        for (Packable element : getElements()) {
-            // element instance of furniture class
-            if (element instanceof Furniture) {
-                furniturePreviouslyPacked = true;
-                break;
-            }
-        }
-        return furniturePreviouslyPacked;
+        return furnitureCount > 0;
+    }
+
+    /**
+     * if the item fits in the length of the storage area behind the cab
+     */
+    private boolean fitsStorageArea(Packable item) {
+        return getTotalItemsLength() + item.getLength() <= getStorageLength();
     }
 
     /**
@@ -159,20 +262,9 @@ public class MovingTruck extends Storage {
     public Packable unpack() {
         // furniture previously packed, unpack first in, last out (last in, first out)
         if (furniturePreviouslyPacked()) {
-            // unpack and re-pack each item except for last furniture item
-            // i.e. last furniture item should be moved to first index to be unpacked
-            for (int index = 0; index < getElements().size() - 1; index++) {
-                // item to unpack and repack from the moving truck
-                Packable itemToUnpackRepack = getElements().get(0);
-                // unpack item
-                super.unpack();
-                try {
-                    // re-pack item
-                    super.pack(itemToUnpackRepack);
-                } catch (PackingException exception) {
-                    // item previously packed, unpacked, then re-packed
-                }
-            }
+            // only furniture may be packed after furniture, so the last item
+            // is always the most recently packed furniture item
+            return unpackLast();
         }
         // unpack item at first index, first in, first out in accordance with superclass
         return super.unpack();
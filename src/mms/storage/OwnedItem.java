@@ -0,0 +1,63 @@
+package mms.storage;
+
+import mms.personal.Personal;
+
+/**
+ * A personal item found in a storage, together with the storage that directly
+ * holds it, as returned by Storage.getItemsOfOwner(String).
+ */
+public class OwnedItem {
+    /**
+     * personal item found
+     */
+    private final Personal item;
+
+    /**
+     * storage the item is packed directly into
+     */
+    private final Storage container;
+
+    /**
+     * Creates a record of a personal item and the storage holding it.
+     * @param item personal item found
+     * @param container storage the item is packed directly into
+     */
+    OwnedItem(Personal item, Storage container) {
+        this.item = item;
+        this.container = container;
+    }
+
+    /**
+     * Returns the personal item found.
+     * @return personal item
+     */
+    public Personal getItem() {
+        return item;
+    }
+
+    /**
+     * Returns the storage the item is packed directly into, which may be
+     * nested within the storage that was searched.
+     * @return storage directly holding the item
+     */
+    public Storage getContainer() {
+        return container;
+    }
+
+    /**
+     * Returns the human-readable string representation of the owned item.
+     * <p>
+     * The format of the string to return is:
+     *     'item' in 'container'
+     * where,
+     *     'item' is the string representation of the personal item, and
+     *     'container' is the string representation of the storage directly
+     *         holding the item.
+     * Example:
+     *     Laptop (Jane) - 3 in Bag (50.00, 50.00, 50.00) MEDIUM
+     * @return string representation of this owned item
+     */
+    public String toString() {
+        return item + " in " + container;
+    }
+}
\ No newline at end of file
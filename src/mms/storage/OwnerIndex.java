@@ -0,0 +1,156 @@
+package mms.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import mms.personal.Personal;
+
+/**
+ * The personal items of each owner held by a storage, directly or inside the
+ * storages nested within it.
+ * <p>
+ * Each storage keeps the personal items packed directly into it, grouped by
+ * owner in insertion order. It also keeps, for each owner, the storages at
+ * any depth below it that directly hold items of that owner, each with a
+ * count. The count is the number of items of the owner in that storage, times
+ * the number of ways the storage is nested within this one, so a storage is
+ * dropped from the index exactly when its count falls to zero. Listing the
+ * items of an owner then visits only the storages that hold them.
+ * <p>
+ * The count only decides when a storage leaves the index. Items are listed
+ * once for each time they are packed into the storage directly holding them,
+ * and each storage holding them is listed once, however many times or ways it
+ * is nested. A bag packed twice into a crate has its items listed once by the
+ * crate, whereas the deep totals of the crate count them twice.
+ */
+class OwnerIndex {
+    /**
+     * personal items packed directly into the storage, grouped by owner, each
+     * group in insertion order
+     */
+    private Map<String, RingBuffer<Personal>> directItems = new HashMap<>();
+
+    /**
+     * storages nested within the storage that directly hold items of each
+     * owner, with their counts, in the order they were first indexed
+     */
+    private Map<String, Map<Storage, Long>> containers = new HashMap<>();
+
+    /**
+     * Creates an empty owner index.
+     */
+    OwnerIndex() {
+    }
+
+    /**
+     * Adds a personal item packed directly into the storage to the end of the
+     * group of its owner.
+     * @param item item packed into the storage
+     */
+    void addDirect(Personal item) {
+        directItems.computeIfAbsent(item.getOwner(), owner -> new RingBuffer<>())
+                .addLast(item);
+    }
+
+    /**
+     * Removes the first or last personal item of the given owner packed
+     * directly into the storage. The first item in storage is also the first
+     * item of its owner, and likewise for the last item.
+     * @param owner owner of the item removed
+     * @param first true to remove the first item of the owner; false to
+     *     remove the last
+     */
+    void removeDirect(String owner, boolean first) {
+        RingBuffer<Personal> items = directItems.get(owner);
+        if (first) {
+            items.removeFirst();
+        } else {
+            items.removeLast();
+        }
+        if (items.isEmpty()) {
+            directItems.remove(owner);
+        }
+    }
+
+    /**
+     * Adds the given amount to the count of a storage holding items of the
+     * given owner, dropping the storage from the index if its count falls to
+     * zero.
+     * @param owner owner of the items
+     * @param container storage directly holding the items
+     * @param delta amount to add to the count; negative to subtract
+     */
+    void adjust(String owner, Storage container, long delta) {
+        Map<Storage, Long> counts =
+                containers.computeIfAbsent(owner, key -> new LinkedHashMap<>());
+        long count = counts.getOrDefault(container, 0L) + delta;
+        if (count == 0) {
+            counts.remove(container);
+            if (counts.isEmpty()) {
+                containers.remove(owner);
+            }
+        } else {
+            counts.put(container, count);
+        }
+    }
+
+    /**
+     * Returns the personal items packed directly into the storage, grouped by
+     * owner. The map must not be changed.
+     * @return items packed directly into the storage, by owner
+     */
+    Map<String, ? extends List<Personal>> directItems() {
+        return directItems;
+    }
+
+    /**
+     * Returns the storages nested within the storage that directly hold items
+     * of each owner, with their counts. The map must not be changed.
+     * @return storages holding items of each owner, by owner
+     */
+    Map<String, Map<Storage, Long>> containers() {
+        return containers;
+    }
+
+    /**
+     * Returns the personal items of the given owner packed directly into the
+     * storage, in insertion order. The list must not be changed.
+     * @param owner owner of the items
+     * @return items of the owner; empty if there are none
+     */
+    List<Personal> directItemsOf(String owner) {
+        RingBuffer<Personal> items = directItems.get(owner);
+        return items == null ? List.of() : items;
+    }
+
+    /**
+     * Returns a new list of the personal items of the given owner held at any
+     * depth within the given storage, each with the storage that directly
+     * holds it. Items packed directly into the storage are listed first.
+     * <p>
+     * Each storage holding items of the owner contributes its items once,
+     * however many times or ways it is nested within the given storage.
+     * @param owner owner of the items
+     * @param storage storage this is the index of
+     * @return new list of the items of the owner and their storages
+     */
+    List<OwnedItem> itemsOf(String owner, Storage storage) {
+        List<OwnedItem> ownedItems = new ArrayList<>();
+        for (Personal item : directItemsOf(owner)) {
+            ownedItems.add(new OwnedItem(item, storage));
+        }
+        Map<Storage, Long> counts = containers.get(owner);
+        if (counts == null) {
+            return ownedItems;
+        }
+        for (Storage container : counts.keySet()) {
+            for (Personal item : container.getOwnerIndex().directItemsOf(owner)) {
+                ownedItems.add(new OwnedItem(item, container));
+            }
+        }
+        return ownedItems;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package mms.storage;
+
+import mms.exceptions.BadItemException;
+import mms.exceptions.PackingException;
+import mms.exceptions.PackingOrderException;
+import mms.exceptions.StorageFullException;
+
+/**
+ * Enum to represent the outcome of trying to pack an item into a storage, as
+ * returned by Storage.tryPack(Packable).
+ */
+public enum PackResult {
+    /**
+     * the item was packed
+     */
+    OK,
+    /**
+     * the storage already holds as many items as its capacity allows
+     */
+    FULL_CAPACITY,
+    /**
+     * the item does not fit within the dimensions of the storage, or no space
+     * for it was found by the placement engine of the storage, or the item is
+     * a storage the storage is packed inside
+     */
+    FULL_DIMENSIONS,
+    /**
+     * the item is of a class the storage does not hold
+     */
+    BAD_ITEM,
+    /**
+     * the item may not be packed after the items already in the storage
+     */
+    WRONG_ORDER,
+    /**
+     * the item would take the storage over its maximum weight
+     */
+    OVERWEIGHT;
+
+    /**
+     * Returns the exception pack(Packable) throws for an item rejected with
+     * this result.
+     * <p>
+     * FULL_CAPACITY, FULL_DIMENSIONS and OVERWEIGHT are reported as a
+     * StorageFullException, BAD_ITEM as a BadItemException and WRONG_ORDER as
+     * a PackingOrderException. A new exception is created each time, unless
+     * stackless exceptions are enabled, in which case the shared stackless
+     * exception is returned.
+     * @return exception for an item rejected with this result; null for OK
+     * @see PackingException#isStackless()
+     */
+    public PackingException toException() {
+        boolean stackless = PackingException.isStackless();
+        switch (this) {
+            case FULL_CAPACITY:
+            case FULL_DIMENSIONS:
+            case OVERWEIGHT:
+                return stackless ? StorageFullException.stackless()
+                        : new StorageFullException();
+            case BAD_ITEM:
+                return stackless ? BadItemException.stackless()
+                        : new BadItemException();
+            case WRONG_ORDER:
+                return stackless ? PackingOrderException.stackless()
+                        : new PackingOrderException();
+            default:
+                return null;
+        }
+    }
+}
\ No newline at end of file
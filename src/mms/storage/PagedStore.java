@@ -0,0 +1,230 @@
+package mms.storage;
+
+import java.util.NoSuchElementException;
+
+import mms.utility.Packable;
+
+/**
+ * An element store that keeps its elements in fixed-size pages, used for
+ * storages holding millions of items.
+ * <p>
+ * Unlike a single array, the store never copies its elements as it grows,
+ * though a storage using it may still keep other per-item data in arrays.
+ * Pages emptied by unpacking are kept for reuse rather than discarded, so a
+ * storage that is filled and drained repeatedly does not keep allocating.
+ * Each page also keeps the total volume of its items, so the volume of many
+ * items can be summed a page at a time.
+ */
+class PagedStore extends ElementStore<Packable> {
+    /**
+     * number of elements on each page, a power of two
+     */
+    static final int PAGE_SIZE = 4096;
+
+    /**
+     * maximum number of empty pages kept for reuse
+     */
+    private static final int SPARE_PAGES = 2;
+
+    /**
+     * A fixed-size block of elements and the total volume of those elements.
+     */
+    private static class Page {
+        /**
+         * elements on this page
+         */
+        private final Packable[] elements = new Packable[PAGE_SIZE];
+
+        /**
+         * sum of the volumes of the elements on this page in cm3
+         */
+        private double volume = 0;
+    }
+
+    /**
+     * pages holding the elements, in order
+     */
+    private RingBuffer<Page> pages = new RingBuffer<>();
+
+    /**
+     * empty pages kept for reuse
+     */
+    private RingBuffer<Page> sparePages = new RingBuffer<>();
+
+    /**
+     * index of the first element on the first page
+     */
+    private int head = 0;
+
+    /**
+     * number of elements in this store
+     */
+    private int count = 0;
+
+    /**
+     * Creates an empty paged store.
+     */
+    PagedStore() {
+    }
+
+    /**
+     * Returns the element at the given position, counting from the first
+     * element.
+     * @param index position of the element
+     * @return element at the given position
+     * @throws IndexOutOfBoundsException if index < 0 or index >= size()
+     */
+    public Packable get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int position = head + index;
+        return pages.get(position / PAGE_SIZE).elements[position % PAGE_SIZE];
+    }
+
+    /**
+     * Returns how many elements are in the store.
+     * @return number of elements in this store
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Adds an element to the end of the store, starting a new page if the
+     * last page is full.
+     * @param element element to add
+     */
+    void addLast(Packable element) {
+        int position = head + count;
+        if (position == pages.size() * PAGE_SIZE) {
+            pages.addLast(sparePages.isEmpty() ? new Page() : sparePages.removeLast());
+        }
+        Page page = pages.get(position / PAGE_SIZE);
+        page.elements[position % PAGE_SIZE] = element;
+        page.volume += element.getVolume();
+        count++;
+        modCount++;
+    }
+
+    /**
+     * Removes and returns the first element of the store, recycling the first
+     * page once it is empty.
+     * @return first element of this store
+     * @throws NoSuchElementException if the store is empty
+     */
+    Packable removeFirst() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        Page page = pages.get(0);
+        Packable element = page.elements[head];
+        // clear the slot so the element can be garbage collected
+        page.elements[head] = null;
+        page.volume -= element.getVolume();
+        head++;
+        count--;
+        if (head == PAGE_SIZE || count == 0) {
+            recycle(pages.removeFirst());
+            head = 0;
+        }
+        modCount++;
+        return element;
+    }
+
+    /**
+     * Removes and returns the last element of the store, recycling the last
+     * page once it is empty.
+     * @return last element of this store
+     * @throws NoSuchElementException if the store is empty
+     */
+    Packable removeLast() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        int position = head + count - 1;
+        Page page = pages.get(position / PAGE_SIZE);
+        Packable element = page.elements[position % PAGE_SIZE];
+        // clear the slot so the element can be garbage collected
+        page.elements[position % PAGE_SIZE] = null;
+        page.volume -= element.getVolume();
+        count--;
+        if (position % PAGE_SIZE == 0 || count == 0) {
+            recycle(pages.removeLast());
+            if (count == 0) {
+                head = 0;
+            }
+        }
+        modCount++;
+        return element;
+    }
+
+    /**
+     * Returns the sum of the volumes of the first given number of elements.
+     * <p>
+     * Whole pages are summed using their page totals, so this takes time
+     * proportional to the number of pages covered plus at most one page of
+     * elements.
+     * @param number number of elements from the front of the store to sum
+     * @return sum of the volumes of those elements in cm3
+     * @throws IndexOutOfBoundsException if number < 0 or number > size()
+     */
+    double volumeOfFirst(int number) {
+        if (number < 0 || number > count) {
+            throw new IndexOutOfBoundsException(number);
+        }
+        double volume = 0;
+        // elements remaining to be summed, and the page and slot reached
+        int remaining = number;
+        int pageIndex = 0;
+        int slot = head;
+        while (remaining > 0) {
+            Page page = pages.get(pageIndex);
+            // elements from the slot reached to the end of this page
+            int onPage = Math.min(remaining, PAGE_SIZE - slot);
+            if (onPage == pageElements(pageIndex)) {
+                volume += page.volume;
+            } else {
+                for (int offset = 0; offset < onPage; offset++) {
+                    volume += page.elements[slot + offset].getVolume();
+                }
+            }
+            remaining -= onPage;
+            pageIndex++;
+            slot = 0;
+        }
+        return volume;
+    }
+
+    /**
+     * Returns the sum of the volumes of all the elements, using the page
+     * totals.
+     * @return sum of the volumes of the elements in this store in cm3
+     */
+    double volume() {
+        double volume = 0;
+        for (int pageIndex = 0; pageIndex < pages.size(); pageIndex++) {
+            volume += pages.get(pageIndex).volume;
+        }
+        return volume;
+    }
+
+    /**
+     * Returns how many elements are on the page at the given index.
+     */
+    private int pageElements(int pageIndex) {
+        int first = pageIndex == 0 ? head : 0;
+        int end = Math.min(PAGE_SIZE, head + count - pageIndex * PAGE_SIZE);
+        return end - first;
+    }
+
+    /**
+     * Keeps an emptied page for reuse, unless enough pages are already kept.
+     */
+    private void recycle(Page page) {
+        page.volume = 0;
+        if (sparePages.size() < SPARE_PAGES) {
+            sparePages.addLast(page);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,138 @@
+package mms.storage;
+
+/**
+ * The position and orientation of an item placed in a storage.
+ * <p>
+ * Positions are measured in cm from the back bottom left corner of the
+ * storage space, along its width (x), height (y) and length (z). The width,
+ * height and length of a placement are those of the item as it is placed,
+ * which may be rotated from the item's own width, height and length.
+ */
+public class Placement {
+    /**
+     * position of the item along the width of the storage in cm
+     */
+    private final double x;
+    /**
+     * position of the item along the height of the storage in cm
+     */
+    private final double y;
+    /**
+     * position of the item along the length of the storage in cm
+     */
+    private final double z;
+
+    /**
+     * extent of the placed item along the width of the storage in cm
+     */
+    private final double width;
+    /**
+     * extent of the placed item along the height of the storage in cm
+     */
+    private final double height;
+    /**
+     * extent of the placed item along the length of the storage in cm
+     */
+    private final double length;
+
+    /**
+     * Creates a placement at the given position with the given extents.
+     * @param x position along the width of the storage in cm
+     * @param y position along the height of the storage in cm
+     * @param z position along the length of the storage in cm
+     * @param width extent along the width of the storage in cm
+     * @param height extent along the height of the storage in cm
+     * @param length extent along the length of the storage in cm
+     */
+    public Placement(double x, double y, double z,
+                     double width, double height, double length) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.width = width;
+        this.height = height;
+        this.length = length;
+    }
+
+    /**
+     * Returns the position of the item along the width of the storage in cm.
+     * @return x coordinate of this placement
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the position of the item along the height of the storage in cm.
+     * @return y coordinate of this placement
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the position of the item along the length of the storage in cm.
+     * @return z coordinate of this placement
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Returns the extent of the placed item along the width of the storage in
+     * cm.
+     * @return width of this placement
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the extent of the placed item along the height of the storage
+     * in cm.
+     * @return height of this placement
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the extent of the placed item along the length of the storage
+     * in cm.
+     * @return length of this placement
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Returns whether this placement and the given placement share any space.
+     * Placements that only touch do not overlap.
+     * @param other placement to compare against
+     * @return true if the placements overlap; false otherwise
+     */
+    public boolean overlaps(Placement other) {
+        return x < other.x + other.width && other.x < x + width
+                && y < other.y + other.height && other.y < y + height
+                && z < other.z + other.length && other.z < z + length;
+    }
+
+    /**
+     * Returns the human-readable string representation of the placement.
+     * <p>
+     * The format of the string to return is:
+     *     ('x', 'y', 'z') 'width' x 'height' x 'length'
+     * where each value is in cm to two decimal places.
+     * Example:
+     *     (0.00, 0.00, 20.00) 20.00 x 20.00 x 5.00
+     * @return string representation of this placement
+     */
+    public String toString() {
+        return "(" + String.format("%.2f", x) + ", "
+                + String.format("%.2f", y) + ", "
+                + String.format("%.2f", z) + ") "
+                + String.format("%.2f", width) + " x "
+                + String.format("%.2f", height) + " x "
+                + String.format("%.2f", length);
+    }
+}
\ No newline at end of file
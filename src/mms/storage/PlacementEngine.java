@@ -0,0 +1,45 @@
+package mms.storage;
+
+import mms.utility.Packable;
+
+/**
+ * Decides where items are physically placed inside a storage.
+ * <p>
+ * By default a storage decides whether an item fits by comparing the sums of
+ * its items' widths, heights and lengths against its own. A storage given a
+ * placement engine instead asks the engine for a position where the item fits
+ * without overlapping any item already placed, and records that position.
+ * @see Storage#setPlacementEngine(PlacementEngine)
+ */
+public interface PlacementEngine {
+    /**
+     * Returns a position where the given item fits, possibly rotated, without
+     * overlapping any occupied space; or null if there is no such position.
+     * The space is not occupied until occupy(Placement) is called.
+     * @param item item to find a position for
+     * @return placement for the item; null if the item does not fit
+     */
+    Placement find(Packable item);
+
+    /**
+     * Returns the position find(Packable) would return for the given item now,
+     * without changing anything the engine remembers between calls, so that
+     * asking whether an item fits does not change where later items are
+     * placed.
+     * @param item item to find a position for
+     * @return placement for the item; null if the item does not fit
+     */
+    Placement probe(Packable item);
+
+    /**
+     * Marks the space of the given placement as occupied.
+     * @param placement placement returned by find(Packable)
+     */
+    void occupy(Placement placement);
+
+    /**
+     * Marks the space of the given placement, previously occupied, as free.
+     * @param placement placement to free
+     */
+    void free(Placement placement);
+}
\ No newline at end of file
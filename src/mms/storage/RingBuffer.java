@@ -0,0 +1,144 @@
+package mms.storage;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A growable array ring buffer used to hold the elements of a storage.
+ * <p>
+ * Elements are kept in insertion order. Adding to the end and removing from
+ * either end take constant time, as does reading any index, so a storage can
+ * be unpacked First In, First Out without shifting the rest of its elements.
+ * @param <E> type of the elements in this ring buffer
+ */
+class RingBuffer<E> extends ElementStore<E> {
+    /**
+     * number of slots allocated when the first element is added
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * slots holding the elements, wrapping around from the end to the start
+     */
+    private Object[] elements = new Object[0];
+
+    /**
+     * index of the slot holding the first element
+     */
+    private int head = 0;
+
+    /**
+     * number of elements in this ring buffer
+     */
+    private int count = 0;
+
+    /**
+     * Creates an empty ring buffer.
+     */
+    RingBuffer() {
+    }
+
+    /**
+     * Returns the element at the given position, counting from the first
+     * element.
+     * @param index position of the element
+     * @return element at the given position
+     * @throws IndexOutOfBoundsException if index < 0 or index >= size()
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (E) elements[slot(index)];
+    }
+
+    /**
+     * Returns how many elements are in the ring buffer.
+     * @return number of elements in this ring buffer
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Adds an element to the end of the ring buffer.
+     * @param element element to add
+     */
+    void addLast(E element) {
+        if (count == elements.length) {
+            grow();
+        }
+        elements[slot(count)] = element;
+        count++;
+        modCount++;
+    }
+
+    /**
+     * Removes and returns the first element of the ring buffer.
+     * @return first element of this ring buffer
+     * @throws NoSuchElementException if the ring buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    E removeFirst() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        E element = (E) elements[head];
+        // clear the slot so the element can be garbage collected
+        elements[head] = null;
+        head = (head + 1) % elements.length;
+        count--;
+        modCount++;
+        return element;
+    }
+
+    /**
+     * Removes and returns the last element of the ring buffer.
+     * @return last element of this ring buffer
+     * @throws NoSuchElementException if the ring buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    E removeLast() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        int last = slot(count - 1);
+        E element = (E) elements[last];
+        // clear the slot so the element can be garbage collected
+        elements[last] = null;
+        count--;
+        modCount++;
+        return element;
+    }
+
+    /**
+     * Removes all the elements from the ring buffer.
+     */
+    public void clear() {
+        elements = new Object[0];
+        head = 0;
+        count = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the array slot of the element at the given position.
+     */
+    private int slot(int index) {
+        int slot = head + index;
+        return slot < elements.length ? slot : slot - elements.length;
+    }
+
+    /**
+     * Doubles the number of slots, moving the first element to slot zero.
+     */
+    private void grow() {
+        Object[] grown = new Object[Math.max(INITIAL_CAPACITY,
+                elements.length * 2)];
+        for (int index = 0; index < count; index++) {
+            grown[index] = elements[slot(index)];
+        }
+        elements = grown;
+        head = 0;
+    }
+}
\ No newline at end of file
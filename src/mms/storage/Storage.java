@@ -1,10 +1,24 @@
 package mms.storage;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import mms.exceptions.PackingException;
-import mms.exceptions.StorageFullException;
+import mms.personal.Personal;
 import mms.utility.Packable;
 import mms.utility.Size;
 
@@ -14,6 +28,23 @@ import mms.utility.Size;
  * so much before the storage unit becomes full.
  */
 public abstract class Storage extends Object {
+    /**
+     * 'tab' character of four spaces
+     */
+    private static final String TAB = "    ";
+
+    /**
+     * indentation strings for the first few levels, where INDENTS[level] is
+     * 'level' 'tab' characters
+     */
+    private static final String[] INDENTS = new String[16];
+
+    static {
+        for (int level = 0; level < INDENTS.length; level++) {
+            INDENTS[level] = TAB.repeat(level);
+        }
+    }
+
     /**
      *  width of this storage in cm
      */
@@ -33,9 +64,108 @@ public abstract class Storage extends Object {
     private Size size;
 
     /**
-     * list of elements in this storage
+     * elements in this storage in insertion order
+     */
+    private ElementStore<Packable> elementsInStorage = new RingBuffer<>();
+
+    /**
+     * elements in this storage grouped by their class, each group in insertion
+     * order
      */
-    private List<Packable> elementsInStorage = new ArrayList<>();
+    private Map<Class<?>, RingBuffer<Packable>> elementsByType = new HashMap<>();
+
+    /**
+     * dimensions of the elements in this storage, in the same order as the
+     * elements
+     */
+    private DimensionStore dimensions = new DimensionStore();
+
+    /**
+     * personal items of each owner within this storage, at any depth
+     */
+    private OwnerIndex ownerIndex = new OwnerIndex();
+
+    /**
+     * storages this storage is packed directly into, with the number of times
+     * it is packed into each
+     */
+    private Map<Storage, Long> parents = new LinkedHashMap<>();
+
+    /**
+     * number of items other than storages at any depth within this storage
+     */
+    private long deepItemCount = 0;
+    /**
+     * sum of the volumes of the items other than storages at any depth within
+     * this storage in cm3
+     */
+    private double deepItemsVolume = 0;
+    /**
+     * sum of the weights of the personal items at any depth within this
+     * storage in grams
+     */
+    private long deepItemsWeight = 0;
+
+    /**
+     * whether this storage is guarded by a concurrent storage, and so may not
+     * be packed into another storage
+     */
+    private volatile boolean guarded = false;
+
+    /**
+     * read-only view of the elements in this storage
+     */
+    private List<Packable> elementsView =
+            Collections.unmodifiableList(elementsInStorage);
+
+    /**
+     * running sum of the widths of the elements in this storage in whole cm
+     */
+    private long totalItemsWidth = 0;
+    /**
+     * running sum of the heights of the elements in this storage in whole cm
+     */
+    private long totalItemsHeight = 0;
+    /**
+     * running sum of the lengths of the elements in this storage in whole cm
+     */
+    private long totalItemsLength = 0;
+
+    /**
+     * engine placing the elements in this storage; null if fit is decided by
+     * the sums of the elements' dimensions
+     */
+    private PlacementEngine placementEngine = null;
+
+    /**
+     * placements of the elements in this storage in insertion order, when a
+     * placement engine is used
+     */
+    private RingBuffer<Placement> placements = new RingBuffer<>();
+
+    /**
+     * placement found for the item most recently checked, to be occupied when
+     * that item is added
+     */
+    private Placement pendingPlacement = null;
+
+    /**
+     * whether items are being checked by canPack(Packable), so the placement
+     * engine is probed rather than asked to find a placement
+     */
+    private boolean probing = false;
+
+    /**
+     * no listeners, shared by every storage without any
+     */
+    private static final StorageListener[] NO_LISTENERS = new StorageListener[0];
+
+    /**
+     * listeners notified of the items packed, rejected and unpacked, in the
+     * order they were added; replaced rather than changed when a listener is
+     * added or removed
+     */
+    private StorageListener[] listeners = NO_LISTENERS;
 
     /**
      * Creates a new empty storage of medium Size with on contents.
@@ -83,6 +213,28 @@ public abstract class Storage extends Object {
         }
     }
 
+    /**
+     * Creates a new empty storage of specified Size that keeps its contents in
+     * the given element store rather than the default ring buffer.
+     * @param width width of the storage in cm
+     * @param height height of the storage in cm
+     * @param length length of the storage in cm
+     * @param size size of the storage
+     * @param elements empty element store to keep the contents in
+     * @throws IllegalArgumentException if width, height or length are less than
+     *     or equal to zero
+     */
+    Storage(double width,
+            double height,
+            double length,
+            Size size,
+            ElementStore<Packable> elements)
+            throws IllegalArgumentException {
+        this(width, height, length, size);
+        elementsInStorage = elements;
+        elementsView = Collections.unmodifiableList(elements);
+    }
+
     /**
      * Returns the width of the storage in cms.
      * @return width of this storage
@@ -107,6 +259,94 @@ public abstract class Storage extends Object {
         return length;
     }
 
+    /**
+     * Returns the sum of the widths of all the items in storage in cms.
+     * <p>
+     * Each item's width is truncated to whole centimetres before it is added.
+     * The sum is kept up to date as items are packed and unpacked, so this is
+     * a constant time lookup.
+     * @return sum of the widths of the items in this storage
+     */
+    protected long getTotalItemsWidth() {
+        return totalItemsWidth;
+    }
+
+    /**
+     * Returns the sum of the heights of all the items in storage in cms.
+     * <p>
+     * Each item's height is truncated to whole centimetres before it is added.
+     * The sum is kept up to date as items are packed and unpacked, so this is
+     * a constant time lookup.
+     * @return sum of the heights of the items in this storage
+     */
+    protected long getTotalItemsHeight() {
+        return totalItemsHeight;
+    }
+
+    /**
+     * Returns the sum of the lengths of all the items in storage in cms.
+     * <p>
+     * Each item's length is truncated to whole centimetres before it is added.
+     * The sum is kept up to date as items are packed and unpacked, so this is
+     * a constant time lookup.
+     * @return sum of the lengths of the items in this storage
+     */
+    protected long getTotalItemsLength() {
+        return totalItemsLength;
+    }
+
+    /**
+     * Returns the sum of the volumes of all the items in storage in cm3.
+     * <p>
+     * The dimensions of each item are read once, when it is packed, and kept
+     * in arrays alongside the items, so the sum is a single loop over those
+     * arrays rather than a call to each item.
+     * @return sum of the volumes of the items in this storage
+     */
+    public double getTotalItemsVolume() {
+        return dimensions.sumVolumes(0, dimensions.size());
+    }
+
+    /**
+     * Sets the engine used to place items physically inside the storage.
+     * <p>
+     * With a placement engine, an item fits if the storage has capacity for it
+     * and the engine finds a position for it, possibly rotated, that does not
+     * overlap any other item. The sums of the items' dimensions are no longer
+     * compared against the storage's. The position of each item is recorded,
+     * see getPlacements(). Without a placement engine, the default, fit is
+     * decided as described in pack(Packable).
+     * @param engine engine to place items with, for the space of this storage;
+     *     null to decide fit by the sums of the items' dimensions
+     * @throws IllegalStateException if the storage is not empty
+     */
+    public void setPlacementEngine(PlacementEngine engine)
+            throws IllegalStateException {
+        if (!elementsInStorage.isEmpty()) {
+            throw new IllegalStateException();
+        }
+        placementEngine = engine;
+    }
+
+    /**
+     * Returns the engine used to place items physically inside the storage.
+     * @return placement engine of this storage; null if none is used
+     */
+    public PlacementEngine getPlacementEngine() {
+        return placementEngine;
+    }
+
+    /**
+     * Returns a new list containing the placement of each item in storage, in
+     * insertion order, so that the item at each index of getElements() is
+     * placed as given at the same index.
+     * @return new list containing the placements of the items in this
+     *     storage; empty if no placement engine is used
+     */
+    public List<Placement> getPlacements() {
+        return new ArrayList<>(placements);
+    }
+
     /**
      * Returns a new list containing all the items in storage.
      * Adding or removing items from this list should not affect the storages
@@ -117,6 +357,30 @@ public abstract class Storage extends Object {
         return new ArrayList<>(elementsInStorage);
     }
 
+    /**
+     * Returns a read-only view of all the items in storage.
+     * <p>
+     * Unlike getElements(), no list is copied. The view always reflects the
+     * current contents of the storage in insertion order, so it should not be
+     * iterated while items are being packed or unpacked. Attempting to add or
+     * remove items through the view throws UnsupportedOperationException.
+     * @return read-only view of the items in this storage
+     */
+    public List<Packable> elementsView() {
+        return elementsView;
+    }
+
+    /**
+     * Performs the given action on each item in storage, in insertion order,
+     * without copying the storages internal list.
+     * @param action action to perform on each item in this storage
+     */
+    public void forEachElement(Consumer<? super Packable> action) {
+        for (int index = 0; index < elementsInStorage.size(); index++) {
+            action.accept(elementsInStorage.get(index));
+        }
+    }
+
     /**
      * Returns a new list containing all the items in storage that are the same
      * class as the reference parameter.
@@ -130,15 +394,111 @@ public abstract class Storage extends Object {
         if (reference == null) {
             return null;
         }
-        // list of elements in storage of reference type
-        List<Packable> elementsOfType = new ArrayList<>();
+        return getElementsOfType(reference.getClass());
+    }
 
-        for (Packable element : elementsInStorage) {
-            if (element.getClass() == reference.getClass()) {
-                elementsOfType.add(element);
-            }
+    /**
+     * Returns a new list containing all the items in storage that are exactly
+     * of the given class, in insertion order.
+     * <p>
+     * Items are indexed by class as they are packed, so this takes time
+     * proportional to the number of matching items rather than the number of
+     * items in storage. Subclasses of the given class are not included.
+     * Adding or removing items from this list should not affect the storages
+     * internal list of items.
+     * @param type class of the items to return
+     * @return new list containing all items in this storage that are of the
+     *     given class; null if type is null
+     */
+    public List<Packable> getElementsOfType(Class<? extends Packable> type) {
+        if (type == null) {
+            return null;
         }
-        return elementsOfType;
+        long start = StorageMetrics.start();
+        // elements in storage of the given type
+        RingBuffer<Packable> elementsOfType = elementsByType.get(type);
+        List<Packable> elements = elementsOfType == null ? new ArrayList<>()
+                : new ArrayList<>(elementsOfType);
+        StorageMetrics.record(this,
+                StorageMetrics.Operation.GET_ELEMENTS_OF_TYPE, start);
+        return elements;
+    }
+
+    /**
+     * Returns a new list of all the personal items of the given owner in
+     * storage, including those in storages nested at any depth inside this
+     * storage, each with the storage that directly holds it.
+     * <p>
+     * The items of each owner are indexed as they are packed and unpacked, and
+     * the index of a storage is carried up into every storage it is packed
+     * into, so this takes time proportional to the number of items returned
+     * rather than the number of items in storage. An item appears once for
+     * each time it is packed into the storage directly holding it, and the
+     * items of each storage holding some appear once, however many times or
+     * ways that storage is nested in this one. This differs from the deep
+     * totals, which count an item once for every way it is nested: a bag
+     * packed twice into this storage has its items listed once here, but
+     * counted twice by getDeepItemCount(). Items packed directly into this
+     * storage come first. Items are grouped by the storage holding them,
+     * and are in insertion order within each storage.
+     * @param owner owner of the items to return
+     * @return new list containing the items of the owner in this storage and
+     *     the storages holding them; null if owner is null
+     */
+    public List<OwnedItem> getItemsOfOwner(String owner) {
+        if (owner == null) {
+            return null;
+        }
+        return ownerIndex.itemsOf(owner, this);
+    }
+
+    /**
+     * Returns how many items are in storage, including the items in storages
+     * nested at any depth inside this storage. The nested storages themselves
+     * are not counted, and an item is counted once for every way it is in
+     * storage: a bag packed twice into this storage has its items counted
+     * twice. getItemsOfOwner(String) instead lists the items of each storage
+     * holding them once.
+     * <p>
+     * This total, like the other deep totals, is kept up to date as items are
+     * packed and unpacked, and each change is carried up through the storages
+     * this storage is packed into, so reading it is a constant time lookup
+     * however deeply the storages are nested.
+     * @return number of items at any depth in this storage
+     */
+    public long getDeepItemCount() {
+        return deepItemCount;
+    }
+
+    /**
+     * Returns the sum of the volumes of the items in storage, including the
+     * items in storages nested at any depth inside this storage, in cm3. The
+     * volumes of the nested storages themselves are not included.
+     * @return sum of the volumes of the items at any depth in this storage
+     * @see #getDeepItemCount()
+     */
+    public double getDeepItemsVolume() {
+        return deepItemsVolume;
+    }
+
+    /**
+     * Returns the sum of the weights of the personal items in storage,
+     * including those in storages nested at any depth inside this storage, in
+     * grams. Items other than personal items have no weight.
+     * @return sum of the weights of the personal items at any depth in this
+     *     storage
+     * @see #getDeepItemCount()
+     */
+    public long getDeepItemsWeight() {
+        return deepItemsWeight;
+    }
+
+    /**
+     * Returns the owner index of the storage.
+     * @return index of the personal items within this storage
+     */
+    OwnerIndex getOwnerIndex() {
+        return ownerIndex;
     }
 
     /**
@@ -190,6 +550,15 @@ public abstract class Storage extends Object {
      * That is, exceeding the one sum is fine,but exceeding two sums should
      * cause an exception.
      * <p>
+     * If the storage has a placement engine, the sums are not checked.
+     * Instead an exception is thrown if the engine finds no position for the
+     * item, see setPlacementEngine(PlacementEngine).
+     * <p>
+     * A storage cannot be packed into itself, nor into any storage that is
+     * packed inside it. Such an item is rejected as a bad item. Originally a
+     * storage that fit could be packed into itself, and when this was first
+     * checked the item was rejected as if the storage were full.
+     * <p>
      * This method declares to throw a PackingException to allow subclasses to
      * throw additional exceptions to the same type.
      * <p>
@@ -204,40 +573,551 @@ public abstract class Storage extends Object {
      *             > storage height
      *         SUM lengths of items in storage + length of new item
      *             > storage length
+     *     or throws BadItemException, if the item is this storage or a
+     *     storage holding it
+     * @see #tryPack(Packable)
      */
     public void pack(Packable item)
             throws PackingException {
-        if (getOccupiedCapacity() >= getCapacity()) {
-            throw new StorageFullException();
-        } else {
-            // total width of items in the storage
-            int totalItemsWidth = 0;
-            // total height of items in the storage
-            int totalItemsHeight = 0;
-            // total length of items in the storage
-            int totalItemsLength = 0;
-
-            for (Packable element : elementsInStorage) {
-                totalItemsWidth  += element.getWidth();
-                totalItemsHeight += element.getHeight();
-                totalItemsLength += element.getLength();
+        PackResult result = tryPack(item);
+        if (result != PackResult.OK) {
+            throw result.toException();
+        }
+    }
+
+    /**
+     * Adds an item to the storages internal list if it may be packed, and
+     * returns why not otherwise.
+     * <p>
+     * The item is checked against the same rules as pack(Packable), and the
+     * storage is left unchanged if it is rejected. Unlike pack(Packable), no
+     * exception is created for a rejected item, so probing many items that
+     * mostly do not fit is cheap. A null item is rejected as BAD_ITEM.
+     * <p>
+     * For a storage that is not packed into another storage and has no
+     * placement engine or listeners, nothing is allocated unless a flight
+     * recording is running, except when the storage's internal arrays grow to
+     * hold more items. A storage packed into others works out the storages it
+     * is within each time it changes, and a placement engine searches for a
+     * position, both of which allocate.
+     * @param item item to add to the storages internal list
+     * @return OK if the item was packed; otherwise the reason it was rejected,
+     *     the reason pack(Packable) would throw for
+     * @see PackResult#toException()
+     */
+    public final PackResult tryPack(Packable item) {
+        FlightEvents.Pack event = FlightEvents.startPack();
+        long start = StorageMetrics.start();
+        PackResult result = item == null ? PackResult.BAD_ITEM : check(item);
+        if (result == PackResult.OK) {
+            addElement(item);
+        }
+        if (listeners.length != 0) {
+            notifyPack(item, result);
+        }
+        StorageMetrics.recordPack(this, start, result);
+        if (event != null && event.shouldCommit()) {
+            event.commit(this, item, result);
+        }
+        return result;
+    }
+
+    /**
+     * Adds all the given items to the storage, or none of them.
+     * <p>
+     * The items are checked in order against the same rules as pack(Packable),
+     * each one as if the accepted items before it had already been packed. If
+     * every item is accepted, all of them are packed in order. Otherwise no
+     * item is packed and the storage is left unchanged. Null items are always
+     * rejected.
+     * <p>
+     * Unlike calling pack(Packable) for each item, no exception is thrown for
+     * a rejected item, so checking a large batch costs the same whether or not
+     * it fits.
+     * <p>
+     * Listeners are told of the outcome once the batch has been packed or
+     * rolled back, so they only ever see the storage in its final state: of
+     * each item packed if the whole batch was packed, or otherwise of each
+     * item rejected, in order. Items added and then removed again because the
+     * batch was rejected are not reported.
+     * @param items items to add to the storages internal list, in order
+     * @return positions in the batch of the items that were rejected, in
+     *     increasing order; empty if all the items were packed
+     * @see #pack(Packable)
+     */
+    public List<Integer> packAll(Collection<? extends Packable> items) {
+        long start = StorageMetrics.start();
+        // positions of the items that were rejected
+        List<Integer> rejected = new ArrayList<>();
+        // reasons the items were rejected, kept only for listeners
+        List<PackResult> reasons = listeners.length != 0 ? new ArrayList<>()
+                : null;
+        // number of items tentatively added
+        int added = 0;
+        int position = 0;
+        for (Packable item : items) {
+            PackResult result = item == null ? PackResult.BAD_ITEM
+                    : check(item);
+            if (result == PackResult.OK) {
+                addElement(item);
+                added++;
+            } else {
+                rejected.add(position);
+                if (reasons != null) {
+                    reasons.add(result);
+                }
+                StorageMetrics.recordRejection(this, result);
             }
-            // count for StorageFullException
-            int countStorageFullException = 0;
-            if (totalItemsWidth  + item.getWidth() > getWidth()) {
-                countStorageFullException++;
+            position++;
+        }
+        if (!rejected.isEmpty()) {
+            // roll back the items tentatively added, most recent first
+            for (; added > 0; added--) {
+                removeElement(false);
             }
-            if (totalItemsHeight + item.getHeight() > getHeight()) {
-                countStorageFullException++;
+            batchRolledBack();
+        }
+        if (reasons != null) {
+            notifyBatch(items, rejected, reasons);
+        }
+        StorageMetrics.record(this, StorageMetrics.Operation.PACK_ALL, start);
+        return rejected;
+    }
+
+    /**
+     * Returns whether the given item could be added to the storage now,
+     * following the same rules as pack(Packable), and if not, why.
+     * <p>
+     * Subclasses with further packing rules override this method to check
+     * them, returning the result of the superclass if the item passes, so
+     * that pack(Packable), tryPack(Packable) and packAll(Collection) all apply
+     * them. Rejecting an item must not create an exception.
+     * @param item item to check, never null
+     * @return OK if pack(Packable) would add the item; otherwise the reason
+     *     it would be rejected
+     */
+    protected PackResult check(Packable item) {
+        return fits(item);
+    }
+
+    /**
+     * Returns whether the given item could be packed into the storage now,
+     * following the same rules as pack(Packable), without packing it.
+     * <p>
+     * Nothing is changed, including what a placement engine remembers between
+     * searches, so this may be called freely to probe candidate items without
+     * changing where later items are placed. Without a placement engine this
+     * takes constant time, as it only compares the item against the running
+     * totals of the storage.
+     * @param item item to check
+     * @return true if pack(Packable) would add the item; false otherwise,
+     *     including if the item is null
+     * @see #tryPack(Packable)
+     */
+    public boolean canPack(Packable item) {
+        if (item == null) {
+            return false;
+        }
+        probing = true;
+        try {
+            return check(item) == PackResult.OK;
+        } finally {
+            probing = false;
+        }
+    }
+
+    /**
+     * Returns how many copies of the given item could be packed into the
+     * storage one after another, starting now, following the same rules as
+     * pack(Packable), without packing any.
+     * <p>
+     * Without a placement engine, the count is worked out from the running
+     * totals of the storage in constant time, and is exact: packing that many
+     * copies succeeds and packing one more fails. With a placement engine,
+     * free space cannot be counted without placing the copies, so the count
+     * is an upper bound: the remaining capacity if one copy can be placed
+     * now, otherwise zero.
+     * <p>
+     * Subclasses with further packing rules override this method to apply
+     * them, returning at most the count of the superclass.
+     * @param item item to count copies of
+     * @return number of copies of the item that could be packed; zero if the
+     *     item is null
+     */
+    public int countFits(Packable item) {
+        if (item == null) {
+            return 0;
+        }
+        if (item instanceof Storage storageItem
+                && (storageItem.guarded || isWithin(storageItem))) {
+            return 0;
+        }
+        int remaining = getRemainingCapacity();
+        if (placementEngine != null) {
+            return canPack(item) ? remaining : 0;
+        }
+        return (int) Math.min(remaining, countFitsDimensions(item));
+    }
+
+    /**
+     * Returns how many copies of the given item could be added one after
+     * another without causing two of the sums of the elements' width, height
+     * or length to be greater than the width, height or length (respectively)
+     * of the storage, ignoring capacity.
+     * <p>
+     * This counts what fitsDimensions(Packable) allows. Subclasses that
+     * override fitsDimensions(Packable) override this method to count the same
+     * limits.
+     * @param item item to count copies of
+     * @return number of copies that fit within the dimensions of the storage;
+     *     Long.MAX_VALUE if there is no limit
+     */
+    protected long countFitsDimensions(Packable item) {
+        long widths = copiesWithin(getWidth() - totalItemsWidth,
+                item.getWidth());
+        long heights = copiesWithin(getHeight() - totalItemsHeight,
+                item.getHeight());
+        long lengths = copiesWithin(getLength() - totalItemsLength,
+                item.getLength());
+        // one sum may be exceeded, so the second smallest count is the limit
+        return Math.max(Math.min(widths, heights),
+                Math.min(Math.max(widths, heights), lengths));
+    }
+
+    /**
+     * Returns how many copies of an item of the given size could be added one
+     * after another before a sum, with the given room left below its limit,
+     * goes over the limit. Sizes are truncated to whole centimetres when they
+     * are added to the sums, but the full size of each new copy is compared.
+     * @param room amount the sum may still grow by
+     * @param size size of the item in the same unit
+     * @return number of copies that fit; Long.MAX_VALUE if there is no limit
+     */
+    protected static long copiesWithin(double room, double size) {
+        if (size > room) {
+            return 0;
+        }
+        long step = (long) size;
+        if (step <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) ((room - size) / step) + 1;
+    }
+
+    /**
+     * Returns how many more items the storage has capacity for.
+     * @return capacity of this storage less the number of items in it
+     */
+    public int getRemainingCapacity() {
+        return getCapacity() - getOccupiedCapacity();
+    }
+
+    /**
+     * Returns how much the sum of the widths of the items in storage may
+     * still grow by before it is greater than the width of the storage, in
+     * cm.
+     * <p>
+     * One of the sums of the widths, heights and lengths may be exceeded, so
+     * this is negative if the sum of the widths is already greater than the
+     * width of the storage.
+     * @return width of this storage less the sum of the widths of its items
+     */
+    public double getRemainingWidth() {
+        return getWidth() - totalItemsWidth;
+    }
+
+    /**
+     * Returns how much the sum of the heights of the items in storage may
+     * still grow by before it is greater than the height of the storage, in
+     * cm; negative if it is already greater.
+     * @return height of this storage less the sum of the heights of its items
+     * @see #getRemainingWidth()
+     */
+    public double getRemainingHeight() {
+        return getHeight() - totalItemsHeight;
+    }
+
+    /**
+     * Returns how much the sum of the lengths of the items in storage may
+     * still grow by before it is greater than the length of the storage, in
+     * cm; negative if it is already greater.
+     * @return length of this storage less the sum of the lengths of its items
+     * @see #getRemainingWidth()
+     */
+    public double getRemainingLength() {
+        return getLength() - totalItemsLength;
+    }
+
+    /**
+     * Called after an item is added to the storage, by pack(Packable) or
+     * packAll(Collection).
+     * <p>
+     * Subclasses that keep their own totals update them here. Items added by
+     * packAll(Collection) are removed again, through elementRemoved(Packable),
+     * if the batch is rejected.
+     * @param item item that was added
+     */
+    protected void elementAdded(Packable item) {
+    }
+
+    /**
+     * Called after an item is removed from the storage, by unpacking or by
+     * rolling back a rejected batch.
+     * @param item item that was removed
+     */
+    protected void elementRemoved(Packable item) {
+    }
+
+    /**
+     * Called after the items of a rejected batch have been removed again by
+     * packAll(Collection), before listeners are told of the rejected items.
+     * <p>
+     * Subclasses with state that elementRemoved(Packable) cannot restore
+     * restore it here.
+     */
+    protected void batchRolledBack() {
+    }
+
+    /**
+     * Returns whether adding the item would not cause two of the sums of the
+     * elements' width, height or length to be greater than the width, height
+     * or length (respectively) of the storage.
+     * <p>
+     * This decides whether an item fits when no placement engine is used.
+     * Subclasses with further limits on the sums of the elements' dimensions
+     * override this method to check them as well.
+     * @param item item to check
+     * @return true if the item fits within the dimensions of the storage;
+     *     false otherwise
+     */
+    protected boolean fitsDimensions(Packable item) {
+        // count of sums that would be exceeded
+        int countExceeded = 0;
+        if (totalItemsWidth  + item.getWidth() > getWidth()) {
+            countExceeded++;
+        }
+        if (totalItemsHeight + item.getHeight() > getHeight()) {
+            countExceeded++;
+        }
+        if (totalItemsLength + item.getLength() > getLength()) {
+            countExceeded++;
+        }
+        return countExceeded <= 1;
+    }
+
+    /**
+     * Returns OK if the storage has capacity for the item and the item fits,
+     * either placed by the placement engine or within the dimensions of the
+     * storage; otherwise FULL_CAPACITY or FULL_DIMENSIONS. A storage guarded
+     * by a concurrent storage, or inside which this storage is packed at any
+     * depth, is a BAD_ITEM.
+     * A placement found is kept for when the item is added, unless the item
+     * is only being probed by canPack(Packable).
+     */
+    private PackResult fits(Packable item) {
+        if (item instanceof Storage storageItem
+                && (storageItem.guarded || isWithin(storageItem))) {
+            return PackResult.BAD_ITEM;
+        }
+        if (getOccupiedCapacity() >= getCapacity()) {
+            return PackResult.FULL_CAPACITY;
+        }
+        if (placementEngine == null) {
+            return fitsDimensions(item) ? PackResult.OK
+                    : PackResult.FULL_DIMENSIONS;
+        }
+        if (probing) {
+            return placementEngine.probe(item) != null ? PackResult.OK
+                    : PackResult.FULL_DIMENSIONS;
+        }
+        pendingPlacement = placementEngine.find(item);
+        return pendingPlacement != null ? PackResult.OK
+                : PackResult.FULL_DIMENSIONS;
+    }
+
+    /**
+     * Returns whether the storage is the given storage, or is packed at any
+     * depth inside it.
+     */
+    private boolean isWithin(Storage storage) {
+        return storage == this || packedInto().containsKey(storage);
+    }
+
+    /**
+     * Marks the storage as guarded by a concurrent storage, after which it is
+     * never packed into another storage. Packing into or unpacking from a
+     * storage updates the deep totals and owner index of every storage it is
+     * packed into, which the lock of the concurrent storage does not cover.
+     * @throws IllegalArgumentException if the storage is already guarded, or
+     *     is packed into another storage
+     */
+    void guard()
+            throws IllegalArgumentException {
+        if (guarded || !parents.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        guarded = true;
+    }
+
+    /**
+     * Returns every storage this storage is packed into, at any depth, with
+     * the number of times this storage is within it: the product of the
+     * number of times each storage is packed into the next, summed over every
+     * way of reaching it. A count too large for a long is held at
+     * Long.MAX_VALUE.
+     * <p>
+     * Each storage is visited once, however many ways it can be reached, so
+     * this takes time linear in the number of storages and packings above
+     * this storage. The storages are walked with an explicit stack, so
+     * storages may be nested to any depth.
+     */
+    private Map<Storage, Long> packedInto() {
+        if (parents.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Storage> order = packedIntoInOrder();
+        // each storage now comes after every storage packed into it
+        Collections.reverse(order);
+        Map<Storage, Long> times = new IdentityHashMap<>();
+        for (Storage storage : order) {
+            long within = storage == this ? 1 : times.get(storage);
+            for (Map.Entry<Storage, Long> parent
+                    : storage.parents.entrySet()) {
+                times.merge(parent.getKey(),
+                        timesSaturated(within, parent.getValue()),
+                        Storage::plusSaturated);
             }
-            if (totalItemsLength + item.getLength() > getLength()) {
-                countStorageFullException++;
+        }
+        return times;
+    }
+
+    /**
+     * Returns this storage and every storage it is packed into, at any depth,
+     * each once and after every storage it is packed into.
+     */
+    private List<Storage> packedIntoInOrder() {
+        List<Storage> order = new ArrayList<>();
+        Set<Storage> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        // storages being visited, innermost first
+        Deque<Storage> path = new ArrayDeque<>();
+        // storages each storage on the path is packed into, still to visit
+        Deque<Iterator<Storage>> pending = new ArrayDeque<>();
+        visited.add(this);
+        path.push(this);
+        pending.push(parents.keySet().iterator());
+        while (!path.isEmpty()) {
+            Iterator<Storage> next = pending.peek();
+            if (next.hasNext()) {
+                Storage parent = next.next();
+                if (visited.add(parent)) {
+                    path.push(parent);
+                    pending.push(parent.parents.keySet().iterator());
+                }
+            } else {
+                pending.pop();
+                order.add(path.pop());
             }
-            if (countStorageFullException > 1) {
-                throw new StorageFullException();
+        }
+        return order;
+    }
+
+    /**
+     * Returns the product of the given numbers, or Long.MAX_VALUE or
+     * Long.MIN_VALUE if it is too large for a long.
+     */
+    private static long timesSaturated(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return low;
+        }
+        return (a ^ b) < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the sum of the given numbers, or Long.MAX_VALUE or
+     * Long.MIN_VALUE if it is too large for a long.
+     */
+    private static long plusSaturated(long a, long b) {
+        long sum = a + b;
+        // overflow only if both have the same sign and the sum does not
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            return a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return sum;
+    }
+
+    /**
+     * Adds the given amount to the count of a storage nested within this one
+     * that holds items of the given owner, in the owner index of each of the
+     * given storages this storage is packed into.
+     */
+    private static void indexOwnedInParents(Map<Storage, Long> packedInto,
+                                            String owner, Storage container,
+                                            long delta) {
+        for (Map.Entry<Storage, Long> parent : packedInto.entrySet()) {
+            parent.getKey().ownerIndex.adjust(owner, container,
+                    timesSaturated(delta, parent.getValue()));
+        }
+    }
+
+    /**
+     * Adds the given amounts to the deep totals of this storage and of each of
+     * the given storages it is packed into.
+     */
+    private void addToDeepTotals(Map<Storage, Long> packedInto,
+                                 long count, double volume, long weight) {
+        adjustDeepTotals(count, volume, weight);
+        for (Map.Entry<Storage, Long> parent : packedInto.entrySet()) {
+            long times = parent.getValue();
+            parent.getKey().adjustDeepTotals(timesSaturated(count, times),
+                    volume * times, timesSaturated(weight, times));
+        }
+    }
+
+    /**
+     * Adds the given amounts to the deep totals of this storage alone.
+     */
+    private void adjustDeepTotals(long count, double volume, long weight) {
+        deepItemCount += count;
+        deepItemsVolume += volume;
+        deepItemsWeight += weight;
+        if (deepItemCount == 0) {
+            // clear any rounding left by adding and subtracting volumes
+            deepItemsVolume = 0;
+        }
+    }
+
+    /**
+     * Records that a storage has been packed into, or unpacked from, this
+     * storage, carrying the owner index of the storage into or out of the
+     * index of this storage and of the given storages it is packed into.
+     */
+    private void nestStorage(Map<Storage, Long> packedInto, Storage child,
+                             int delta) {
+        long count = child.parents.getOrDefault(this, 0L) + delta;
+        if (count == 0) {
+            child.parents.remove(this);
+        } else {
+            child.parents.put(this, count);
+        }
+        for (Map.Entry<String, ? extends List<Personal>> owned
+                : child.ownerIndex.directItems().entrySet()) {
+            long ownedDelta = (long) delta * owned.getValue().size();
+            ownerIndex.adjust(owned.getKey(), child, ownedDelta);
+            indexOwnedInParents(packedInto, owned.getKey(), child, ownedDelta);
+        }
+        for (Map.Entry<String, Map<Storage, Long>> owned
+                : child.ownerIndex.containers().entrySet()) {
+            for (Map.Entry<Storage, Long> container
+                    : owned.getValue().entrySet()) {
+                long ownedDelta = timesSaturated(delta, container.getValue());
+                ownerIndex.adjust(owned.getKey(), container.getKey(),
+                        ownedDelta);
+                indexOwnedInParents(packedInto, owned.getKey(),
+                        container.getKey(), ownedDelta);
             }
         }
-        elementsInStorage.add(item);
     }
 
     /**
@@ -249,13 +1129,223 @@ public abstract class Storage extends Object {
     public Packable unpack() {
         if (elementsInStorage.isEmpty()) {
             return null;
+        }
+        FlightEvents.Unpack event = FlightEvents.startUnpack();
+        long start = StorageMetrics.start();
+        // unpack in first in, first out
+        Packable item = removeElement(true);
+        if (listeners.length != 0) {
+            notifyUnpack(item);
+        }
+        StorageMetrics.record(this, StorageMetrics.Operation.UNPACK, start);
+        if (event != null && event.shouldCommit()) {
+            event.commit(this, item, false);
+        }
+        return item;
+    }
+
+    /**
+     * Removes the most recently packed item from the storages internal list.
+     * <p>
+     * This allows subclasses to unpack in a Last In, First Out (LIFO) format
+     * without moving the rest of the elements.
+     * @return item at the last index of this storage internal list;
+     *     null if the list is empty
+     */
+    protected Packable unpackLast() {
+        if (elementsInStorage.isEmpty()) {
+            return null;
+        }
+        FlightEvents.Unpack event = FlightEvents.startUnpack();
+        long start = StorageMetrics.start();
+        // unpack in last in, first out
+        Packable item = removeElement(false);
+        if (listeners.length != 0) {
+            notifyUnpack(item);
+        }
+        StorageMetrics.record(this, StorageMetrics.Operation.UNPACK, start);
+        if (event != null && event.shouldCommit()) {
+            event.commit(this, item, true);
+        }
+        return item;
+    }
+
+    /**
+     * Registers a listener to be told of every item packed into, rejected by
+     * or unpacked from this storage, after any listeners already registered.
+     * <p>
+     * Packing into nested storages is not reported to the listeners of the
+     * storages holding them. A listener registered more than once is told of
+     * each event once for each registration. A storage without listeners
+     * checks for them with a single comparison, so observing some storages
+     * does not slow down the others.
+     * @param listener listener to register
+     * @throws IllegalArgumentException if listener is null
+     * @see StorageListener
+     */
+    public void addListener(StorageListener listener)
+            throws IllegalArgumentException {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        StorageListener[] added =
+                Arrays.copyOf(listeners, listeners.length + 1);
+        added[listeners.length] = listener;
+        listeners = added;
+    }
+
+    /**
+     * Removes the earliest registration of the given listener from this
+     * storage, if there is one.
+     * @param listener listener to remove
+     * @return true if the listener was removed; false if it was not
+     *     registered
+     */
+    public boolean removeListener(StorageListener listener) {
+        for (int index = 0; index < listeners.length; index++) {
+            if (listeners[index] == listener) {
+                StorageListener[] removed =
+                        new StorageListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, removed, 0, index);
+                System.arraycopy(listeners, index + 1, removed, index,
+                        removed.length - index);
+                listeners = removed.length == 0 ? NO_LISTENERS : removed;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells every listener that the given item was packed or rejected.
+     */
+    private void notifyPack(Packable item, PackResult result) {
+        for (StorageListener listener : listeners) {
+            if (result == PackResult.OK) {
+                listener.itemPacked(this, item);
+            } else {
+                listener.itemRejected(this, item, result);
+            }
+        }
+    }
+
+    /**
+     * Tells every listener of the outcome of a batch packed by
+     * packAll(Collection): of each item packed if none were rejected,
+     * otherwise of each item rejected, with its reason.
+     */
+    private void notifyBatch(Collection<? extends Packable> items,
+                             List<Integer> rejected, List<PackResult> reasons) {
+        int position = 0;
+        int next = 0;
+        for (Packable item : items) {
+            if (rejected.isEmpty()) {
+                notifyPack(item, PackResult.OK);
+            } else if (next < rejected.size() && rejected.get(next) == position) {
+                notifyPack(item, reasons.get(next));
+                next++;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Tells every listener that the given item was unpacked.
+     */
+    private void notifyUnpack(Packable item) {
+        for (StorageListener listener : listeners) {
+            listener.itemUnpacked(this, item);
+        }
+    }
+
+    /**
+     * Adds an item to the end of the internal list, the type index, the
+     * dimensions, the running totals, the owner index, the deep totals and
+     * the placements, and notifies the subclass. The item must have just been
+     * checked by check(Packable).
+     */
+    private void addElement(Packable item) {
+        elementsInStorage.addLast(item);
+        elementsByType.computeIfAbsent(item.getClass(), type -> new RingBuffer<>())
+                .addLast(item);
+        dimensions.addLast(item);
+        // update running totals from the dimensions just read
+        int last = dimensions.size() - 1;
+        totalItemsWidth  += (long) dimensions.width(last);
+        totalItemsHeight += (long) dimensions.height(last);
+        totalItemsLength += (long) dimensions.length(last);
+        Map<Storage, Long> packedInto = packedInto();
+        if (dimensions.tag(last) == DimensionStore.PERSONAL) {
+            Personal personalItem = (Personal) item;
+            ownerIndex.addDirect(personalItem);
+            indexOwnedInParents(packedInto, personalItem.getOwner(), this, 1);
+            addToDeepTotals(packedInto, 1, dimensions.volume(last),
+                    personalItem.getWeight());
+        } else if (dimensions.tag(last) == DimensionStore.STORAGE) {
+            Storage storageItem = (Storage) item;
+            nestStorage(packedInto, storageItem, 1);
+            addToDeepTotals(packedInto, storageItem.deepItemCount,
+                    storageItem.deepItemsVolume, storageItem.deepItemsWeight);
+        } else {
+            addToDeepTotals(packedInto, 1, dimensions.volume(last), 0);
+        }
+        if (placementEngine != null) {
+            // occupy the placement found when the item was checked
+            placementEngine.occupy(pendingPlacement);
+            placements.addLast(pendingPlacement);
+            pendingPlacement = null;
+        }
+        elementAdded(item);
+    }
+
+    /**
+     * Removes the first or last item from the internal list, the type index,
+     * the dimensions, the running totals, the owner index, the deep totals
+     * and the placements, and notifies the subclass. The first item in storage is also the first
+     * item of its class, and likewise for the last item.
+     */
+    private Packable removeElement(boolean first) {
+        Packable item = first
+                ? elementsInStorage.removeFirst()
+                : elementsInStorage.removeLast();
+        RingBuffer<Packable> elementsOfType = elementsByType.get(item.getClass());
+        if (first) {
+            elementsOfType.removeFirst();
+        } else {
+            elementsOfType.removeLast();
+        }
+        // update running totals from the dimensions read when it was added
+        int index = first ? 0 : dimensions.size() - 1;
+        totalItemsWidth  -= (long) dimensions.width(index);
+        totalItemsHeight -= (long) dimensions.height(index);
+        totalItemsLength -= (long) dimensions.length(index);
+        Map<Storage, Long> packedInto = packedInto();
+        if (dimensions.tag(index) == DimensionStore.PERSONAL) {
+            Personal personalItem = (Personal) item;
+            ownerIndex.removeDirect(personalItem.getOwner(), first);
+            indexOwnedInParents(packedInto, personalItem.getOwner(), this, -1);
+            addToDeepTotals(packedInto, -1, -dimensions.volume(index),
+                    -personalItem.getWeight());
+        } else if (dimensions.tag(index) == DimensionStore.STORAGE) {
+            Storage storageItem = (Storage) item;
+            nestStorage(packedInto, storageItem, -1);
+            addToDeepTotals(packedInto, -storageItem.deepItemCount,
+                    -storageItem.deepItemsVolume, -storageItem.deepItemsWeight);
         } else {
-            // item to unpack from the storage
-            Packable itemToUnpack = elementsInStorage.get(0);
-            // unpack in first in, first out
-            elementsInStorage.remove(0);
-            return itemToUnpack;
+            addToDeepTotals(packedInto, -1, -dimensions.volume(index), 0);
+        }
+        if (first) {
+            dimensions.removeFirst();
+        } else {
+            dimensions.removeLast();
+        }
+        if (placementEngine != null) {
+            placementEngine.free(first
+                    ? placements.removeFirst()
+                    : placements.removeLast());
         }
+        elementRemoved(item);
+        return item;
     }
 
     /**
@@ -332,40 +1422,68 @@ public abstract class Storage extends Object {
      */
     public String toString(int level)
             throws IllegalArgumentException {
+        FlightEvents.Render event = FlightEvents.startRender();
+        long start = StorageMetrics.start();
+        // string representation of this storage
+        StringBuilder storageToString = new StringBuilder();
+        try {
+            render(storageToString, level);
+        } catch (IOException exception) {
+            // appending to a StringBuilder never throws an IOException
+            throw new UncheckedIOException(exception);
+        }
+        String result = storageToString.toString();
+        StorageMetrics.record(this, StorageMetrics.Operation.TO_STRING, start);
+        if (event != null && event.shouldCommit()) {
+            event.commit(this, level, result.length());
+        }
+        return result;
+    }
+
+    /**
+     * Appends the human-readable string representation of the storage and its
+     * elements to the given output.
+     * <p>
+     * The output is exactly the string returned by toString(int), but is
+     * written piece by piece as the elements are visited, rather than built up
+     * by concatenation. This keeps the cost linear in the size of the output
+     * and allows large inventories to be streamed straight to a Writer.
+     * @param out output to append the string representation to
+     * @param level number of tabs to indent
+     * @throws IOException if appending to the output fails
+     * @throws IllegalArgumentException if level < 0
+     * @see #toString(int)
+     */
+    public void render(Appendable out, int level)
+            throws IOException, IllegalArgumentException {
         if (level < 0) {
             throw new IllegalArgumentException();
-        } else {
-            // string representation of this storage for concatenation
-            String storageToString = "";
-
-            // 'tab' character of four spaces
-            String tab = "    ";
+        }
+        // append storage level tabs and storage string representation
+        out.append(indent(level)).append(toString());
 
-            // concatenate storage level tabs
-            for (int tabs = 0; tabs < level; tabs++) {
-                storageToString += tab;
-            }
-            // concatenate storage string representation
-            storageToString += toString();
-
-            for (Packable element : getElements()) {
-                // element is storage and is not empty
-                if (element instanceof Storage storageElement
-                        && storageElement.getElements().size() > 0) {
-                    storageToString += "\n" + storageElement.toString(level + 1);
-                } else {
-                    // concatenate new line
-                    storageToString += "\n";
-                    // concatenate element level plus one tabs
-                    for (int elementTabs = 0; elementTabs < level + 1; elementTabs++) {
-                        storageToString += tab;
-                    }
-                    // concatenate element string representation
-                    storageToString += element.toString();
-                }
+        for (int index = 0; index < elementsInStorage.size(); index++) {
+            Packable element = elementsInStorage.get(index);
+            out.append('\n');
+            // element is storage and is not empty
+            if (dimensions.tag(index) == DimensionStore.STORAGE
+                    && ((Storage) element).getOccupiedCapacity() > 0) {
+                ((Storage) element).render(out, level + 1);
+            } else {
+                // append element level plus one tabs and element string
+                // representation
+                out.append(indent(level + 1)).append(element.toString());
             }
+        }
+    }
 
-            return storageToString;
+    /**
+     * Returns 'level' 'tab' characters.
+     */
+    private static String indent(int level) {
+        if (level < INDENTS.length) {
+            return INDENTS[level];
         }
+        return TAB.repeat(level);
     }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package mms.storage;
+
+import mms.utility.Packable;
+
+/**
+ * A record of an item packed into, rejected by or unpacked from a storage, as
+ * delivered by an AsyncStorageListener.
+ */
+public class StorageEvent {
+    /**
+     * Enum to represent what happened to the item.
+     */
+    public enum Kind {
+        /**
+         * the item was packed into the storage
+         */
+        PACKED,
+        /**
+         * the item was rejected by the storage
+         */
+        REJECTED,
+        /**
+         * the item was unpacked from the storage
+         */
+        UNPACKED;
+    }
+
+    /**
+     * what happened to the item
+     */
+    private final Kind kind;
+
+    /**
+     * storage the item was packed into, rejected by or unpacked from
+     */
+    private final Storage storage;
+
+    /**
+     * item the event is about
+     */
+    private final Packable item;
+
+    /**
+     * reason the item was rejected; null unless the kind is REJECTED
+     */
+    private final PackResult reason;
+
+    /**
+     * Creates a record of an event.
+     * @param kind what happened to the item
+     * @param storage storage the item was packed into, rejected by or
+     *     unpacked from
+     * @param item item the event is about
+     * @param reason reason the item was rejected; null unless the kind is
+     *     REJECTED
+     */
+    StorageEvent(Kind kind, Storage storage, Packable item, PackResult reason) {
+        this.kind = kind;
+        this.storage = storage;
+        this.item = item;
+        this.reason = reason;
+    }
+
+    /**
+     * Returns what happened to the item.
+     * @return kind of this event
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the storage the item was packed into, rejected by or unpacked
+     * from.
+     * @return storage of this event
+     */
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Returns the item the event is about.
+     * @return item of this event; null if a null item was rejected
+     */
+    public Packable getItem() {
+        return item;
+    }
+
+    /**
+     * Returns why the item was rejected.
+     * @return reason the item was rejected; null unless the kind is REJECTED
+     */
+    public PackResult getReason() {
+        return reason;
+    }
+
+    /**
+     * Calls the method of the given listener for this event, as the storage
+     * would have.
+     * @param listener listener to deliver this event to
+     */
+    public void deliverTo(StorageListener listener) {
+        switch (kind) {
+            case PACKED:
+                listener.itemPacked(storage, item);
+                break;
+            case REJECTED:
+                listener.itemRejected(storage, item, reason);
+                break;
+            default:
+                listener.itemUnpacked(storage, item);
+                break;
+        }
+    }
+
+    /**
+     * Returns the human-readable string representation of the event.
+     * <p>
+     * The format of the string to return is:
+     *     'kind' 'item' ['reason'] 'storage'
+     * where,
+     *     'kind' is PACKED, REJECTED or UNPACKED,
+     *     'item' is the string representation of the item,
+     *     'reason' is the reason the item was rejected, in brackets, only
+     *         for a rejected item, and
+     *     'storage' is the string representation of the storage.
+     * Example:
+     *     UNPACKED Laptop (Jane) - 3 Box (5.60, 5.60, 5.00) MEDIUM
+     * @return string representation of this event
+     */
+    public String toString() {
+        return kind + " " + item
+                + (reason == null ? "" : " [" + reason + "]")
+                + " " + storage;
+    }
+}
\ No newline at end of file
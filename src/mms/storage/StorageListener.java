@@ -0,0 +1,46 @@
+package mms.storage;
+
+import mms.utility.Packable;
+
+/**
+ * Observes the items packed into and unpacked from a storage.
+ * <p>
+ * A listener is registered with Storage.addListener(StorageListener) and is
+ * called on the thread that packs or unpacks, right after the storage has
+ * changed, or right after an item has been rejected. Each method does
+ * nothing by default, so a listener implements only the events it needs.
+ * <p>
+ * Listeners are called while the storage is in the middle of a pack or
+ * unpack, so they must not pack into or unpack from the storage, and should
+ * return quickly. A listener that does slow work, such as writing to a log or
+ * a remote pipeline, can be wrapped in an AsyncStorageListener.
+ * @see Storage#addListener(StorageListener)
+ * @see AsyncStorageListener
+ */
+public interface StorageListener {
+    /**
+     * Called after an item has been packed into a storage.
+     * @param storage storage the item was packed into
+     * @param item item packed
+     */
+    default void itemPacked(Storage storage, Packable item) {
+    }
+
+    /**
+     * Called after an item has been rejected by a storage, which was left
+     * unchanged.
+     * @param storage storage that rejected the item
+     * @param item item rejected; null if a null item was rejected
+     * @param reason reason the item was rejected, never OK
+     */
+    default void itemRejected(Storage storage, Packable item, PackResult reason) {
+    }
+
+    /**
+     * Called after an item has been unpacked from a storage.
+     * @param storage storage the item was unpacked from
+     * @param item item unpacked
+     */
+    default void itemUnpacked(Storage storage, Packable item) {
+    }
+}
\ No newline at end of file
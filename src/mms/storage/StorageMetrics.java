@@ -0,0 +1,257 @@
+package mms.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional counters and latency histograms for the operations of storages.
+ * <p>
+ * Instrumentation is off until enable() or enable(int) is called. While it is
+ * on, every call to each Operation is counted, for each class of storage, as
+ * is every item rejected, by reason. The latency of a call is measured for
+ * one call in every 'samplingPeriod', chosen at random, and recorded in a
+ * histogram for the operation and class of storage. Reading the clock costs
+ * more than the rest of the instrumentation put together, so sampling keeps
+ * the cost per call within a few nanoseconds while still giving accurate
+ * latency distributions under load. While instrumentation is off, each
+ * operation only checks a single field.
+ * <p>
+ * All counters are LongAdder counters, so storages used from many threads
+ * update them without locking or contending. snapshot() copies the counts at
+ * any time, for export as text or JSON.
+ * <p>
+ * Calls are counted once, at the Storage method that does the work, however
+ * many subclass methods they pass through, and a call on a nested storage is
+ * counted for the nested storage only.
+ * @see MetricsSnapshot
+ */
+public final class StorageMetrics {
+    /**
+     * Enum to represent an instrumented operation of a storage.
+     */
+    public enum Operation {
+        /**
+         * pack(Packable) or tryPack(Packable)
+         */
+        PACK,
+        /**
+         * packAll(Collection)
+         */
+        PACK_ALL,
+        /**
+         * unpack(), in any unpacking order
+         */
+        UNPACK,
+        /**
+         * getElementsOfType(Packable) or getElementsOfType(Class)
+         */
+        GET_ELEMENTS_OF_TYPE,
+        /**
+         * toString(int)
+         */
+        TO_STRING;
+    }
+
+    /**
+     * start time returned while instrumentation is off
+     */
+    static final long OFF = Long.MIN_VALUE;
+
+    /**
+     * start time returned for a call whose latency is not sampled
+     */
+    static final long NOT_SAMPLED = Long.MIN_VALUE + 1;
+
+    /**
+     * one call in this many has its latency measured; zero while
+     * instrumentation is off
+     */
+    private static volatile int samplingPeriod = 0;
+
+    /**
+     * counters and histograms of each class of storage, replaced by reset()
+     */
+    private static volatile Registry registry = new Registry();
+
+    /**
+     * Counters and histograms of a single class of storage.
+     */
+    static class ClassMetrics {
+        /**
+         * number of calls to each operation
+         */
+        final LongAdder[] calls = new LongAdder[Operation.values().length];
+
+        /**
+         * latencies of the sampled calls to each operation
+         */
+        final LatencyHistogram[] latencies =
+                new LatencyHistogram[Operation.values().length];
+
+        /**
+         * number of items rejected for each reason, indexed by the ordinal of
+         * the PackResult; OK is never counted
+         */
+        final LongAdder[] rejections = new LongAdder[PackResult.values().length];
+
+        /**
+         * Creates counters and histograms that are all zero.
+         */
+        ClassMetrics() {
+            for (int index = 0; index < calls.length; index++) {
+                calls[index] = new LongAdder();
+                latencies[index] = new LatencyHistogram();
+            }
+            for (int index = 0; index < rejections.length; index++) {
+                rejections[index] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Counters and histograms of every class of storage used since the last
+     * reset.
+     */
+    private static class Registry extends ClassValue<ClassMetrics> {
+        /**
+         * counters and histograms of each class of storage, for snapshots
+         */
+        final Map<Class<?>, ClassMetrics> byClass = new ConcurrentHashMap<>();
+
+        /**
+         * Creates the counters and histograms of a class of storage, the
+         * first time it is looked up.
+         */
+        protected ClassMetrics computeValue(Class<?> type) {
+            return byClass.computeIfAbsent(type, key -> new ClassMetrics());
+        }
+    }
+
+    /**
+     * Not instantiable.
+     */
+    private StorageMetrics() {
+    }
+
+    /**
+     * Turns instrumentation on, measuring the latency of every call.
+     */
+    public static void enable() {
+        enable(1);
+    }
+
+    /**
+     * Turns instrumentation on, measuring the latency of one call in every
+     * 'samplingPeriod' calls, chosen at random. Calls and rejections are
+     * always all counted.
+     * @param samplingPeriod number of calls for each call measured
+     * @throws IllegalArgumentException if samplingPeriod < 1
+     */
+    public static void enable(int samplingPeriod)
+            throws IllegalArgumentException {
+        if (samplingPeriod < 1) {
+            throw new IllegalArgumentException();
+        }
+        StorageMetrics.samplingPeriod = samplingPeriod;
+    }
+
+    /**
+     * Turns instrumentation off. The counts so far are kept.
+     */
+    public static void disable() {
+        samplingPeriod = 0;
+    }
+
+    /**
+     * Returns whether instrumentation is on.
+     * @return true if storage operations are being counted; false otherwise
+     */
+    public static boolean isEnabled() {
+        return samplingPeriod != 0;
+    }
+
+    /**
+     * Sets every count back to zero. Calls in progress may be counted either
+     * before or after the reset.
+     */
+    public static void reset() {
+        registry = new Registry();
+    }
+
+    /**
+     * Returns a copy of the counts and latencies of every class of storage
+     * used since instrumentation was enabled or reset. Calls made while the
+     * copy is made may be partly included.
+     * @return snapshot of the storage metrics
+     */
+    public static MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(registry.byClass);
+    }
+
+    /**
+     * Returns the time to pass to record when an operation finishes.
+     * @return OFF if instrumentation is off, NOT_SAMPLED if the latency of
+     *     this call is not measured, otherwise the current time
+     */
+    static long start() {
+        int period = samplingPeriod;
+        if (period == 0) {
+            return OFF;
+        }
+        if (period > 1 && ThreadLocalRandom.current().nextInt(period) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Counts a call to an operation, and records its latency if sampled.
+     * @param storage storage the operation was called on
+     * @param operation operation called
+     * @param start time returned by start() when the operation began
+     */
+    static void record(Storage storage, Operation operation, long start) {
+        if (start == OFF) {
+            return;
+        }
+        ClassMetrics metrics = registry.get(storage.getClass());
+        metrics.calls[operation.ordinal()].increment();
+        if (start != NOT_SAMPLED) {
+            metrics.latencies[operation.ordinal()]
+                    .record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Counts a call to pack, and the item rejected if it was, and records
+     * its latency if sampled.
+     * @param storage storage the item was packed into
+     * @param start time returned by start() when packing began
+     * @param result result of packing the item
+     */
+    static void recordPack(Storage storage, long start, PackResult result) {
+        if (start == OFF) {
+            return;
+        }
+        record(storage, Operation.PACK, start);
+        if (result != PackResult.OK) {
+            registry.get(storage.getClass()).rejections[result.ordinal()]
+                    .increment();
+        }
+    }
+
+    /**
+     * Counts an item rejected by packAll(Collection).
+     * @param storage storage that rejected the item
+     * @param result reason the item was rejected
+     */
+    static void recordRejection(Storage storage, PackResult result) {
+        if (samplingPeriod == 0) {
+            return;
+        }
+        registry.get(storage.getClass()).rejections[result.ordinal()]
+                .increment();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package mms.storage;
+
+import mms.utility.Size;
+
+/**
+ * A warehouse to stage items in before and after a move.
+ * <p>
+ * A warehouse holds far more items than any other storage, so its list of
+ * elements is kept in fixed-size pages rather than in one array, and is never
+ * copied as it grows. Items are still packed and unpacked in the same way as
+ * any other storage, First In, First Out, and each page keeps the total
+ * volume of its items.
+ * <p>
+ * Only the list of elements is paged. The index of elements by type and the
+ * dimensions read from each item are kept as in any other storage, in arrays
+ * that double in size and are copied when full, so filling a warehouse still
+ * copies those.
+ */
+public class Warehouse extends Storage {
+    /**
+     * paged list of elements in this warehouse
+     */
+    private PagedStore pagedElements;
+
+    /**
+     * Creates an empty large-sized warehouse with the specified width, height
+     * and length.
+     * @param width width of the warehouse in cm
+     * @param height height of the warehouse in cm
+     * @param length length of the warehouse in cm
+     * @throws IllegalArgumentException if width, height or length are less than
+     *     or equal to zero
+     */
+    public Warehouse(double width,
+                     double height,
+                     double length)
+            throws IllegalArgumentException {
+        this(width, height, length, Size.LARGE);
+    }
+
+    /**
+     * Creates an empty warehouse with the specified width, height, length and
+     * size.
+     * @param width width of the warehouse in cm
+     * @param height height of the warehouse in cm
+     * @param length length of the warehouse in cm
+     * @param size size of the warehouse
+     * @throws IllegalArgumentException if width, height or length are less than
+     *     or equal to zero
+     */
+    public Warehouse(double width,
+                     double height,
+                     double length,
+                     Size size)
+            throws IllegalArgumentException {
+        this(width, height, length, size, new PagedStore());
+    }
+
+    /**
+     * Creates an empty warehouse that keeps its contents in the given paged
+     * store.
+     */
+    private Warehouse(double width,
+                      double height,
+                      double length,
+                      Size size,
+                      PagedStore pagedElements)
+            throws IllegalArgumentException {
+        super(width, height, length, size, pagedElements);
+        this.pagedElements = pagedElements;
+    }
+
+    /**
+     * Returns the multiplier of a warehouse.
+     * The value of the multiplier for a warehouse is two hundred thousand
+     * (200000), so a large warehouse holds two million items.
+     * @return multiplier of this warehouse
+     */
+    protected int getMultiplier() {
+        return 200000;
+    }
+
+    /**
+     * Returns the sum of the volumes of all the items in the warehouse in cm3.
+     * <p>
+     * The sum is taken from the totals kept by each page, so this takes time
+     * proportional to the number of pages rather than the number of items.
+     * @return sum of the volumes of the items in this warehouse
+     */
+    public double getTotalItemsVolume() {
+        return pagedElements.volume();
+    }
+
+    /**
+     * Returns the sum of the volumes of the next given number of items to be
+     * unpacked from the warehouse in cm3.
+     * @param number number of items that would be unpacked
+     * @return sum of the volumes of the next 'number' items in this warehouse
+     * @throws IllegalArgumentException if number < 0 or number is greater than
+     *     the number of items in the warehouse
+     */
+    public double getVolumeOfNext(int number)
+            throws IllegalArgumentException {
+        if (number < 0 || number > getOccupiedCapacity()) {
+            throw new IllegalArgumentException();
+        }
+        return pagedElements.volumeOfFirst(number);
+    }
+
+    /**
+     * Returns the human-readable string representation of the warehouse.
+     * <p>
+     * The format of the string to return is:
+     *     Warehouse ('capacity'/'totalCapacity')
+     * where,
+     *     'capacity' is the current number of items in this warehouse
+     *     'totalCapacity' is the maximum capacity of this warehouse
+     * Example:
+     *     Warehouse (14/2000000)
+     * @return string representation of this warehouse
+     */
+    public String toString() {
+        return getClass().getSimpleName() + " ("
+                + getOccupiedCapacity() + "/"
+                + getCapacity() + ")";
+    }
+}
\ No newline at end of file
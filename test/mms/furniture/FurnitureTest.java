@@ -0,0 +1,44 @@
+package mms.furniture;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class FurnitureTest {
+    @Test(expected = IllegalArgumentException.class)
+    public void ofNullTest()
+            throws IllegalArgumentException {
+        Furniture.of(null);
+    }
+
+    @Test
+    public void ofSharedInstanceTest() {
+        assertSame(Furniture.of(FurnitureType.CHAIR),
+                Furniture.of(FurnitureType.CHAIR));
+        assertNotSame(Furniture.of(FurnitureType.CHAIR),
+                Furniture.of(FurnitureType.DESK));
+        assertEquals(FurnitureType.DESK, Furniture.of(FurnitureType.DESK).getType());
+    }
+
+    @Test
+    public void dimensionsInCmTest() {
+        for (FurnitureType type : FurnitureType.values()) {
+            Furniture furniture = new Furniture(type);
+            assertEquals(type.width * 100, furniture.getWidth(), 0);
+            assertEquals(type.height * 100, furniture.getHeight(), 0);
+            assertEquals(type.length * 100, furniture.getLength(), 0);
+            assertEquals(furniture.getWidth() * furniture.getHeight()
+                    * furniture.getLength(), furniture.getVolume(), 0);
+        }
+        assertEquals(150.0, Furniture.of(FurnitureType.BED).getWidth(), 0);
+        assertEquals(75.0, Furniture.of(FurnitureType.TELEVISION).getHeight(), 0);
+        assertEquals(375000.0, Furniture.of(FurnitureType.CHAIR).getVolume(), 0);
+    }
+
+    @Test
+    public void toStringTest() {
+        assertEquals("Furniture (TABLE)", Furniture.of(FurnitureType.TABLE).toString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package mms.manifest;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+import mms.storage.Bag;
+import mms.storage.Box;
+import mms.storage.MovingTruck;
+import mms.storage.Storage;
+import mms.storage.Warehouse;
+
+import mms.exceptions.PackingException;
+
+import static mms.furniture.FurnitureType.*;
+import static mms.personal.ClotheType.*;
+import static mms.utility.Size.*;
+
+public class BinaryManifestTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path path;
+    private MovingTruck truck;
+
+    @Before
+    public void setUp()
+            throws IOException, PackingException {
+        path = folder.newFile("truck.mms").toPath();
+
+        Bag bag = new Bag(100, 100, 100, SMALL);
+        bag.pack(new Laptop("Jane", 3));
+        bag.pack(new Clothes("Jane", LARGE, PANTS));
+        Box box = new Box(500, 500, 500, "Kitchen \u00fcmlaut");
+        box.pack(new Book("Jane", "Title", true));
+        box.pack(bag);
+        box.pack(new Book("Bob", "Title", false));
+        truck = new MovingTruck(1000, 1000, 3000, MEDIUM);
+        truck.pack(box);
+        truck.pack(new Furniture(CHAIR));
+        truck.pack(new Furniture(TELEVISION));
+    }
+
+    @Test
+    public void roundTripTest()
+            throws IOException {
+        BinaryManifest.save(truck, path);
+        Storage loaded = BinaryManifest.load(path);
+
+        assertTrue(loaded instanceof MovingTruck);
+        assertEquals(truck.toString(0), loaded.toString(0));
+        assertEquals(truck.getDeepItemCount(), loaded.getDeepItemCount());
+        assertEquals(truck.getDeepItemsWeight(), loaded.getDeepItemsWeight());
+        assertEquals(2, ((MovingTruck) loaded).getFurnitureCount());
+        assertSame(Furniture.of(CHAIR), loaded.getElements().get(1));
+        assertEquals(3, loaded.getItemsOfOwner("Jane").size());
+    }
+
+    @Test
+    public void roundTripBagTest()
+            throws IOException, PackingException {
+        Bag bag = new Bag(50, 50, 50);
+        BinaryManifest.save(bag, path);
+        assertEquals(bag.toString(0), BinaryManifest.load(path).toString(0));
+
+        bag.pack(new Book("Jane", "Title", false));
+        BinaryManifest.save(bag, path);
+        assertEquals(bag.toString(0), BinaryManifest.load(path).toString(0));
+    }
+
+    @Test
+    public void stringsStoredOnceTest()
+            throws IOException, PackingException {
+        Warehouse warehouse = new Warehouse(1.0E6, 1.0E6, 1.0E6);
+        for (int count = 0; count < 1000; count++) {
+            warehouse.pack(new Book("A long owner name", "A long book title", false));
+        }
+        BinaryManifest.save(warehouse, path);
+
+        // each book takes a tag, two one-byte string positions and a flag
+        assertTrue(Files.size(path) < 100 + 1000 * 4);
+        assertEquals(1000, BinaryManifest.load(path).getOccupiedCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void saveUnsupportedStorageTest()
+            throws IOException {
+        BinaryManifest.save(new Box(10, 10, 10, "Comment") {
+        }, path);
+    }
+
+    @Test(expected = IOException.class)
+    public void loadNotManifestTest()
+            throws IOException {
+        Files.write(path, new byte[] {1, 2, 3, 4, 5});
+        BinaryManifest.load(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void loadTruncatedTest()
+            throws IOException {
+        BinaryManifest.save(truck, path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        BinaryManifest.load(path);
+    }
+
+    @Test
+    public void loadHugeStringCountTest()
+            throws IOException {
+        // "MMS1", then a string count of Integer.MAX_VALUE
+        Files.write(path, new byte[] {'M', 'M', 'S', '1',
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+        try {
+            BinaryManifest.load(path);
+            fail();
+        } catch (IOException expected) {
+            assertEquals("count out of range", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void loadHugeStringLengthTest()
+            throws IOException {
+        // "MMS1", one string, then a length of Integer.MAX_VALUE
+        Files.write(path, new byte[] {'M', 'M', 'S', '1', 1,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+        try {
+            BinaryManifest.load(path);
+            fail();
+        } catch (IOException expected) {
+            assertEquals("count out of range", expected.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package mms.manifest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.storage.Bag;
+import mms.storage.Box;
+import mms.storage.MovingTruck;
+
+import mms.exceptions.BadItemException;
+import mms.exceptions.PackingException;
+import mms.exceptions.PackingOrderException;
+import mms.exceptions.StorageFullException;
+
+import static mms.furniture.FurnitureType.*;
+
+public class ManifestImporterTest {
+    private MovingTruck truck;
+    private List<ImportReject> rejects;
+    private ManifestImporter importer;
+
+    @Before
+    public void setUp() {
+        truck = new MovingTruck(1000, 1000, 3000);
+        rejects = new ArrayList<>();
+        importer = new ManifestImporter(truck, rejects::add);
+    }
+
+    /**
+     * Imports the given lines into the truck.
+     */
+    private long importLines(String... lines)
+            throws IOException {
+        return importer.importFrom(new StringReader(String.join("\n", lines)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullTargetTest() {
+        new ManifestImporter(null, rejects::add);
+    }
+
+    @Test
+    public void nestedImportTest()
+            throws IOException {
+        long packed = importLines(
+                "# kitchen",
+                "0,Box,300,300,300,MEDIUM,\"Kitchen, \"\"fragile\"\"\"",
+                "1,Bag,100,100,100,SMALL",
+                "2,Laptop,Jane,3",
+                "2,Clothes,Jane,LARGE,PANTS",
+                "",
+                "1,Book,Bob,\"Title, with comma\",true",
+                "0,Furniture,CHAIR");
+
+        assertEquals(6, packed);
+        assertTrue(rejects.isEmpty());
+        assertEquals(2, truck.getOccupiedCapacity());
+        Box box = (Box) truck.getElements().get(0);
+        assertEquals("Kitchen, \"fragile\"", box.getComment());
+        assertTrue(box.getElements().get(0) instanceof Bag);
+        assertEquals("Book (Bob) Title: Title, with comma (Fiction)",
+                box.getElements().get(1).toString());
+        assertEquals(2, ((Bag) box.getElements().get(0)).getOccupiedCapacity());
+        assertSame(Furniture.of(CHAIR), truck.getElements().get(1));
+        assertEquals(4, truck.getDeepItemCount());
+    }
+
+    @Test
+    public void packingRejectsTest()
+            throws IOException {
+        long packed = importLines(
+                "0,Bag,100,100,100,SMALL",
+                "1,Furniture,CHAIR",
+                "0,Furniture,DESK",
+                "0,Book,Jane,Title,false",
+                "0,Furniture,TELEVISION");
+
+        assertEquals(3, packed);
+        assertEquals(2, rejects.size());
+        assertEquals(2, rejects.get(0).getLineNumber());
+        assertTrue(rejects.get(0).getReason() instanceof BadItemException);
+        assertTrue(rejects.get(1).getReason() instanceof PackingOrderException);
+        assertEquals("Line 4: PackingOrderException: 0,Book,Jane,Title,false",
+                rejects.get(1).toString());
+    }
+
+    @Test
+    public void storageFullTest()
+            throws IOException {
+        String[] lines = new String[truck.getCapacity() + 1];
+        for (int count = 0; count < lines.length; count++) {
+            lines[count] = "0,Book,Jane,Title " + count + ",false";
+        }
+        assertEquals(truck.getCapacity(), importLines(lines));
+        assertEquals(1, rejects.size());
+        assertTrue(rejects.get(0).getReason() instanceof StorageFullException);
+    }
+
+    @Test
+    public void invalidLinesTest()
+            throws IOException {
+        long packed = importLines(
+                "0,Book,Jane,Title",
+                "0,Book,Jane,Title,maybe",
+                "0,Book,,Title,false",
+                "0,Spoon,Jane",
+                "x,Book,Jane,Title,false",
+                "0,Clothes,Jane,HUGE,PANTS",
+                "0,Book,\"Jane,Title,false",
+                "3,Book,Jane,Title,false",
+                "0,Laptop,Jane,3");
+
+        assertEquals(1, packed);
+        assertEquals(8, rejects.size());
+        for (ImportReject reject : rejects) {
+            assertTrue(reject.getReason() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void itemsInRejectedContainerTest()
+            throws IOException {
+        long packed = importLines(
+                "0,Box,5000,5000,5000,MEDIUM,Too large",
+                "1,Book,Jane,Title,false",
+                "1,Bag,10,10,10,SMALL",
+                "2,Book,Jane,Title,false",
+                "0,Bag,0,10,10,SMALL",
+                "1,Book,Jane,Title,false",
+                "0,Book,Jane,Title,false");
+
+        assertEquals(1, packed);
+        assertEquals(6, rejects.size());
+        assertTrue(rejects.get(0).getReason() instanceof StorageFullException);
+        assertEquals(PackingException.class, rejects.get(1).getReason().getClass());
+        assertEquals(PackingException.class, rejects.get(3).getReason().getClass());
+        assertTrue(rejects.get(4).getReason() instanceof IllegalArgumentException);
+        assertEquals(PackingException.class, rejects.get(5).getReason().getClass());
+        assertTrue(truck.getElements().get(0) instanceof Book);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package mms.planning;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+import mms.storage.MovingTruck;
+import mms.utility.Packable;
+
+import mms.exceptions.PackingException;
+
+import static mms.furniture.FurnitureType.*;
+import static mms.personal.ClotheType.*;
+import static mms.utility.Size.*;
+
+public class FleetPlannerTest {
+    private TruckSpec small;
+    private TruckSpec large;
+
+    @Before
+    public void setUp() {
+        // a small truck holds 12 items and a large truck 40
+        small = new TruckSpec(1000, 1000, 2500, SMALL);
+        large = new TruckSpec(1000, 1000, 2500, LARGE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noSpecsTest() {
+        new FleetPlanner(List.of());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cabLongerThanTruckSpecTest() {
+        new TruckSpec(1000, 1000, 1000, LARGE);
+    }
+
+    @Test
+    public void truckSpecTest() {
+        assertEquals(40, large.getCapacity());
+        assertEquals(1000, large.getStorageLength(), 0.001);
+        assertEquals("TruckSpec (1000.00, 1000.00, 2500.00) LARGE",
+                large.toString());
+    }
+
+    @Test
+    public void fewestTrucksTest()
+            throws PackingException {
+        List<Packable> items = books(100);
+        FleetPlan plan = new FleetPlanner(List.of(large)).plan(items);
+
+        assertEquals(3, plan.getTruckCount());
+        assertEquals("FleetPlan (3 trucks, 0 unassigned)", plan.toString());
+        assertPacksEveryItemOnce(items, plan);
+    }
+
+    @Test
+    public void smallestTruckForLoadTest()
+            throws PackingException {
+        List<Packable> items = books(45);
+        FleetPlan plan = new FleetPlanner(List.of(small, large)).plan(items);
+
+        assertEquals(2, plan.getTruckCount());
+        assertSame(large, plan.getLoads().get(0).getSpec());
+        assertSame(small, plan.getLoads().get(1).getSpec());
+        assertPacksEveryItemOnce(items, plan);
+    }
+
+    @Test
+    public void storageLengthLimitsLoadTest()
+            throws PackingException {
+        // 100 cm of storage area holds two 50 cm long chairs
+        TruckSpec shortTruck = new TruckSpec(1000, 1000, 1600, LARGE);
+        List<Packable> items = new ArrayList<>();
+        for (int count = 0; count < 5; count++) {
+            items.add(new Furniture(CHAIR));
+        }
+        FleetPlan plan = new FleetPlanner(List.of(shortTruck)).plan(items);
+
+        assertEquals(3, plan.getTruckCount());
+        assertPacksEveryItemOnce(items, plan);
+    }
+
+    @Test
+    public void furnitureLastInEachLoadTest()
+            throws PackingException {
+        List<Packable> items = new ArrayList<>();
+        for (int count = 0; count < 200; count++) {
+            switch (count % 5) {
+                case 0:
+                    items.add(new Furniture(count % 2 == 0 ? CHAIR : TELEVISION));
+                    break;
+                case 1:
+                    items.add(new Laptop("Owner", count));
+                    break;
+                case 2:
+                    items.add(new Clothes("Owner", MEDIUM, SHIRT));
+                    break;
+                default:
+                    items.add(new Book("Owner", "Title " + count, false));
+                    break;
+            }
+        }
+        FleetPlan plan = new FleetPlanner(List.of(small, large)).plan(items);
+
+        for (TruckLoad load : plan.getLoads()) {
+            boolean furnitureSeen = false;
+            for (Packable item : load.getItems()) {
+                if (item instanceof Furniture) {
+                    furnitureSeen = true;
+                } else {
+                    assertFalse(furnitureSeen);
+                }
+            }
+        }
+        assertPacksEveryItemOnce(items, plan);
+    }
+
+    @Test
+    public void itemTooLongForAnyTruckTest()
+            throws PackingException {
+        // 50 cm of storage area is too short for a 100 cm long desk
+        TruckSpec shortest = new TruckSpec(1000, 1000, 1550, LARGE);
+        Furniture desk = new Furniture(DESK);
+        List<Packable> items = List.of(new Furniture(BED), desk);
+        FleetPlan plan = new FleetPlanner(List.of(shortest)).plan(items);
+
+        assertEquals(1, plan.getTruckCount());
+        assertEquals(List.of(desk), plan.getUnassigned());
+    }
+
+    @Test
+    public void noItemsTest() {
+        FleetPlan plan = new FleetPlanner(List.of(large)).plan(List.of());
+        assertEquals(0, plan.getTruckCount());
+        assertTrue(plan.getUnassigned().isEmpty());
+    }
+
+    /**
+     * Returns the given number of new books.
+     */
+    private static List<Packable> books(int number) {
+        List<Packable> books = new ArrayList<>();
+        for (int count = 0; count < number; count++) {
+            books.add(new Book("Owner", "Title " + count, false));
+        }
+        return books;
+    }
+
+    /**
+     * Checks that every load packs into a moving truck and that the loads and
+     * unassigned items together hold each item exactly once.
+     */
+    private static void assertPacksEveryItemOnce(List<Packable> items,
+                                                 FleetPlan plan)
+            throws PackingException {
+        Map<Packable, Integer> planned = new IdentityHashMap<>();
+        for (TruckLoad load : plan.getLoads()) {
+            MovingTruck truck = load.pack();
+            assertEquals(load.getItems().size(), truck.getOccupiedCapacity());
+            for (Packable item : load.getItems()) {
+                planned.merge(item, 1, Integer::sum);
+            }
+        }
+        for (Packable item : plan.getUnassigned()) {
+            planned.merge(item, 1, Integer::sum);
+        }
+        assertEquals(items.size(), planned.size());
+        for (Packable item : items) {
+            assertEquals(Integer.valueOf(1), planned.get(item));
+        }
+    }
+}
\ No newline at end of file
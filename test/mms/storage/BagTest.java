@@ -0,0 +1,134 @@
+package mms.storage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+
+import mms.exceptions.BadItemException;
+import mms.exceptions.PackingException;
+import mms.exceptions.StorageFullException;
+
+import static mms.furniture.FurnitureType.*;
+import static mms.personal.ClotheType.*;
+import static mms.utility.Size.*;
+
+public class BagTest {
+    private Bag bag;
+
+    private Book book;
+    private Laptop laptop;
+    private Clothes pants;
+    private Clothes socks;
+
+    @Before
+    public void setUp() {
+        bag = new Bag(1000, 1000, 1000, LARGE);
+
+        book = new Book("BookOwner", "BookTitle", false);
+        laptop = new Laptop("LaptopOwner", 10);
+        pants = new Clothes("PantsOwner", LARGE, PANTS);
+        socks = new Clothes("SocksOwner", SMALL, SOCKS);
+    }
+
+    @Test
+    public void getTotalItemsWeightTest()
+            throws PackingException {
+        bag.pack(laptop);
+        bag.pack(pants);
+        bag.pack(socks);
+        assertEquals(1400, bag.getTotalItemsWeight());
+
+        // unpack Laptop (LaptopOwner) - 10
+        bag.unpack();
+        assertEquals(400, bag.getTotalItemsWeight());
+    }
+
+    @Test
+    public void packUpToMaximumWeightTest()
+            throws PackingException {
+        // 1000 + 250 + 250 = 1500 grams
+        bag.pack(laptop);
+        bag.pack(book);
+        bag.pack(pants);
+        assertEquals(1500, bag.getTotalItemsWeight());
+        assertEquals(3, bag.getOccupiedCapacity());
+    }
+
+    @Test(expected = StorageFullException.class)
+    public void overMaximumWeightTest()
+            throws PackingException {
+        bag.pack(laptop);
+        bag.pack(book);
+        bag.pack(pants);
+        bag.pack(socks);
+    }
+
+    @Test
+    public void packAfterUnpackFreesWeightTest()
+            throws PackingException {
+        bag.pack(laptop);
+        bag.pack(book);
+        bag.pack(pants);
+        bag.unpack();
+        bag.pack(socks);
+        assertEquals(650, bag.getTotalItemsWeight());
+    }
+
+    @Test(expected = BadItemException.class)
+    public void packNotPersonalTest()
+            throws PackingException {
+        bag.pack(new Furniture(CHAIR));
+    }
+
+    @Test
+    public void packAllTest() {
+        assertEquals(List.of(), bag.packAll(List.of(laptop, pants, socks)));
+        assertEquals(3, bag.getOccupiedCapacity());
+        assertEquals(1400, bag.getTotalItemsWeight());
+    }
+
+    @Test
+    public void packAllOverMaximumWeightTest()
+            throws PackingException {
+        bag.pack(socks);
+        // 150 + 250 + 1000 grams leaves no room for the 250 gram book
+        assertEquals(List.of(2, 3),
+                bag.packAll(List.of(pants, laptop, book, new Furniture(CHAIR))));
+        assertEquals(1, bag.getOccupiedCapacity());
+        assertEquals(150, bag.getTotalItemsWeight());
+    }
+
+    @Test
+    public void tryPackTest() {
+        assertEquals(PackResult.BAD_ITEM, bag.tryPack(new Furniture(CHAIR)));
+        assertEquals(PackResult.OK, bag.tryPack(laptop));
+        assertEquals(PackResult.OK, bag.tryPack(book));
+        assertEquals(PackResult.OK, bag.tryPack(pants));
+        // 1500 grams already packed
+        assertEquals(PackResult.OVERWEIGHT, bag.tryPack(socks));
+        assertEquals(3, bag.getOccupiedCapacity());
+        assertEquals(1500, bag.getTotalItemsWeight());
+    }
+
+    @Test
+    public void countFitsTest()
+            throws PackingException {
+        bag.pack(laptop);
+        assertEquals(500, bag.getRemainingWeight());
+        // 250 grams each
+        assertEquals(2, bag.countFits(book));
+        assertEquals(0, bag.countFits(laptop));
+        assertEquals(0, bag.countFits(new Furniture(CHAIR)));
+        assertFalse(bag.canPack(new Furniture(CHAIR)));
+        assertEquals(2, StorageTest.packCopies(bag, book));
+        assertEquals(0, bag.getRemainingWeight());
+    }
+}
\ No newline at end of file
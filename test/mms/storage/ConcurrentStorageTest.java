@@ -0,0 +1,223 @@
+package mms.storage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.personal.Clothes;
+import mms.personal.Laptop;
+import mms.personal.Personal;
+import mms.utility.Packable;
+
+import mms.exceptions.PackingException;
+
+import static mms.furniture.FurnitureType.*;
+import static mms.personal.ClotheType.*;
+import static mms.utility.Size.*;
+
+public class ConcurrentStorageTest {
+    /**
+     * number of loader threads packing at once
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * number of items each loader thread tries to pack
+     */
+    private static final int ATTEMPTS = 500;
+
+    private ExecutorService loaders;
+
+    @Before
+    public void setUp() {
+        loaders = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown()
+            throws InterruptedException {
+        loaders.shutdownNow();
+        assertTrue(loaders.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullStorageTest() {
+        new ConcurrentStorage<Box>(null);
+    }
+
+    @Test
+    public void wrappedStorageNotNestedTest() {
+        Box inner = new Box(50, 50, 50, "Inner");
+        new ConcurrentStorage<>(inner);
+        Box outer = new Box(100, 100, 100, "Outer");
+        assertEquals(PackResult.BAD_ITEM, outer.tryPack(inner));
+        assertEquals(0, outer.countFits(inner));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrapNestedStorageTest()
+            throws PackingException {
+        Box inner = new Box(50, 50, 50, "Inner");
+        new Box(100, 100, 100, "Outer").pack(inner);
+        new ConcurrentStorage<>(inner);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrapTwiceTest() {
+        Box box = new Box(100, 100, 100, "Box");
+        new ConcurrentStorage<>(box);
+        new ConcurrentStorage<>(box);
+    }
+
+    @Test
+    public void boxNeverExceedsCapacityTest()
+            throws Exception {
+        ConcurrentStorage<Box> box = new ConcurrentStorage<>(
+                new Box(1000, 1000, 1000, "Books"));
+        int packed = packFromAllThreads(box,
+                () -> new Book("Owner", "Title", false));
+
+        assertEquals(10, packed);
+        assertEquals(10, box.getOccupiedCapacity());
+        assertEquals(10, box.getElements().size());
+    }
+
+    @Test
+    public void truckNeverExceedsLengthTest()
+            throws Exception {
+        // the cab takes 1500 cm, leaving room for twenty 5 cm books
+        ConcurrentStorage<MovingTruck> truck = new ConcurrentStorage<>(
+                new MovingTruck(1.0E6, 1.0E6, 1600));
+        int packed = packFromAllThreads(truck,
+                () -> new Book("Owner", "Title", false));
+
+        assertEquals(20, packed);
+        assertEquals(20, truck.getOccupiedCapacity());
+        assertEquals(100, truck.atomically(
+                storage -> storage.getTotalItemsLength()).intValue());
+    }
+
+    @Test
+    public void truckKeepsFurnitureLastTest()
+            throws Exception {
+        ConcurrentStorage<MovingTruck> truck = new ConcurrentStorage<>(
+                new MovingTruck(1.0E6, 1.0E6, 1.0E6));
+        int[] next = {0};
+        packFromAllThreads(truck, () -> {
+            synchronized (next) {
+                return next[0]++ % 7 == 0
+                        ? new Furniture(CHAIR)
+                        : new Book("Owner", "Title", false);
+            }
+        });
+
+        List<Packable> elements = truck.getElements();
+        assertEquals(40, elements.size());
+        boolean furnitureSeen = false;
+        int furniture = 0;
+        for (Packable element : elements) {
+            if (element instanceof Furniture) {
+                furnitureSeen = true;
+                furniture++;
+            } else {
+                assertFalse("personal item packed after furniture",
+                        furnitureSeen);
+            }
+        }
+        assertEquals(furniture, truck.getStorage().getFurnitureCount());
+    }
+
+    @Test
+    public void bagWeightStaysConsistentTest()
+            throws Exception {
+        ConcurrentStorage<Bag> bag = new ConcurrentStorage<>(
+                new Bag(1.0E6, 1.0E6, 1.0E6, LARGE));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            boolean laptops = thread % 2 == 0;
+            results.add(loaders.submit(() -> {
+                start.await();
+                for (int count = 0; count < ATTEMPTS; count++) {
+                    try {
+                        bag.pack(laptops
+                                ? new Laptop("Owner", 10)
+                                : new Clothes("Owner", SMALL, SOCKS));
+                    } catch (PackingException e) {
+                        // the bag is full, make room for another loader
+                        bag.unpack();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+
+        int weight = 0;
+        for (Packable element : bag.getElements()) {
+            weight += ((Personal) element).getWeight();
+        }
+        assertTrue(weight <= 1500);
+        assertEquals(weight, bag.getStorage().getTotalItemsWeight());
+    }
+
+    @Test
+    public void atomicallyTest()
+            throws Exception {
+        ConcurrentStorage<Box> box = new ConcurrentStorage<>(
+                new Box(1000, 1000, 1000, "Books"));
+        Book book = new Book("Owner", "Title", false);
+        box.pack(book);
+
+        assertSame(book, box.atomically(Storage::unpack));
+        assertEquals(0, box.getOccupiedCapacity());
+    }
+
+    /**
+     * Has every loader thread try to pack the given number of new items at
+     * once, and returns how many were packed.
+     */
+    private int packFromAllThreads(ConcurrentStorage<?> storage,
+                                   Callable<Packable> items)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            results.add(loaders.submit(() -> {
+                start.await();
+                int packed = 0;
+                for (int count = 0; count < ATTEMPTS; count++) {
+                    try {
+                        storage.pack(items.call());
+                        packed++;
+                    } catch (PackingException e) {
+                        // rejected, as expected once the storage is full
+                    }
+                }
+                return packed;
+            }));
+        }
+        start.countDown();
+        int packed = 0;
+        for (Future<Integer> result : results) {
+            packed += result.get(30, TimeUnit.SECONDS);
+        }
+        return packed;
+    }
+}
\ No newline at end of file
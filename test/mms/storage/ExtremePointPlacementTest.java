@@ -0,0 +1,139 @@
+package mms.storage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mms.utility.Packable;
+
+public class ExtremePointPlacementTest {
+    /**
+     * Packable item of the given dimensions.
+     */
+    private static class Crate implements Packable {
+        private double width;
+        private double height;
+        private double length;
+
+        public Crate(double width, double height, double length) {
+            this.width = width;
+            this.height = height;
+            this.length = length;
+        }
+
+        public double getWidth() {
+            return width;
+        }
+
+        public double getHeight() {
+            return height;
+        }
+
+        public double getLength() {
+            return length;
+        }
+    }
+
+    private ExtremePointPlacement engine;
+
+    @Before
+    public void setUp() {
+        engine = new ExtremePointPlacement(100, 100, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void widthEqualToZeroTest() {
+        new ExtremePointPlacement(0, 100, 100);
+    }
+
+    @Test
+    public void firstItemAtCornerTest() {
+        Placement placement = engine.find(new Crate(10, 20, 30));
+        assertEquals("(0.00, 0.00, 0.00) 10.00 x 20.00 x 30.00",
+                placement.toString());
+    }
+
+    @Test
+    public void fillsSpaceExactlyTest() {
+        List<Placement> placed = fill(new Crate(10, 10, 10));
+        assertEquals(1000, placed.size());
+        assertEquals(0.0, engine.getFreeVolume(), 0.001);
+        assertNull(engine.find(new Crate(1, 1, 1)));
+        assertNoOverlaps(placed);
+    }
+
+    @Test
+    public void mixedSizesDoNotOverlapTest() {
+        List<Placement> placed = new ArrayList<>();
+        double[][] sizes = {{30, 20, 10}, {7, 7, 7}, {50, 5, 25}, {12, 40, 3}};
+        for (int count = 0; count < 400; count++) {
+            double[] size = sizes[count % sizes.length];
+            Placement placement = engine.find(
+                    new Crate(size[0], size[1], size[2]));
+            if (placement != null) {
+                engine.occupy(placement);
+                placed.add(placement);
+            }
+        }
+        assertTrue(placed.size() > 100);
+        assertNoOverlaps(placed);
+        for (Placement placement : placed) {
+            assertTrue(placement.getX() + placement.getWidth() <= 100);
+            assertTrue(placement.getY() + placement.getHeight() <= 100);
+            assertTrue(placement.getZ() + placement.getLength() <= 100);
+        }
+    }
+
+    @Test
+    public void rotatesToFitTest() {
+        ExtremePointPlacement tube = new ExtremePointPlacement(10, 10, 100);
+        Placement placement = tube.find(new Crate(100, 10, 10));
+        assertEquals(10, placement.getWidth(), 0.001);
+        assertEquals(10, placement.getHeight(), 0.001);
+        assertEquals(100, placement.getLength(), 0.001);
+    }
+
+    @Test
+    public void tooLargeTest() {
+        assertNull(engine.find(new Crate(101, 101, 1)));
+        assertNull(engine.find(new Crate(101, 1, 1)));
+    }
+
+    @Test
+    public void freedSpaceIsReusedTest() {
+        List<Placement> placed = fill(new Crate(50, 50, 50));
+        assertEquals(8, placed.size());
+
+        engine.free(placed.get(3));
+        Placement placement = engine.find(new Crate(50, 50, 50));
+        assertEquals(placed.get(3).toString(), placement.toString());
+    }
+
+    /**
+     * Places copies of the item until no more fit, returning the placements.
+     */
+    private List<Placement> fill(Packable item) {
+        List<Placement> placed = new ArrayList<>();
+        Placement placement = engine.find(item);
+        while (placement != null) {
+            engine.occupy(placement);
+            placed.add(placement);
+            placement = engine.find(item);
+        }
+        return placed;
+    }
+
+    private static void assertNoOverlaps(List<Placement> placed) {
+        for (int first = 0; first < placed.size(); first++) {
+            for (int second = first + 1; second < placed.size(); second++) {
+                if (placed.get(first).overlaps(placed.get(second))) {
+                    fail(placed.get(first) + " overlaps " + placed.get(second));
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
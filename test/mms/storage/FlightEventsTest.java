@@ -0,0 +1,103 @@
+package mms.storage;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+
+import mms.exceptions.PackingException;
+
+import static mms.furniture.FurnitureType.*;
+
+public class FlightEventsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Runs the given action while recording the storage events, and returns
+     * the events recorded.
+     */
+    private List<RecordedEvent> record(Runnable action)
+            throws IOException {
+        Path path = folder.newFile("storage.jfr").toPath();
+        try (Recording recording = new Recording()) {
+            recording.enable("mms.storage.Pack").withoutThreshold();
+            recording.enable("mms.storage.Unpack").withoutThreshold();
+            recording.enable("mms.storage.Render").withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(path);
+        }
+        return RecordingFile.readAllEvents(path);
+    }
+
+    @Test
+    public void packTest()
+            throws IOException {
+        Bag bag = new Bag(1000, 1000, 1000);
+        List<RecordedEvent> events = record(() -> {
+            bag.tryPack(new Book("Jane", "Title", false));
+            bag.tryPack(new Furniture(CHAIR));
+        });
+        assertEquals(2, events.size());
+        RecordedEvent packed = events.get(0);
+        assertEquals("mms.storage.Pack", packed.getEventType().getName());
+        assertEquals(Bag.class.getName(),
+                packed.getClass("containerType").getName());
+        assertEquals(1, packed.getInt("occupancy"));
+        assertEquals(bag.getCapacity(), packed.getInt("capacity"));
+        assertEquals(Book.class.getName(),
+                packed.getClass("itemType").getName());
+        assertEquals("OK", packed.getString("outcome"));
+        assertEquals("BAD_ITEM", events.get(1).getString("outcome"));
+    }
+
+    @Test
+    public void unpackAndRenderTest()
+            throws IOException, PackingException {
+        MovingTruck truck = new MovingTruck(1000, 1000, 3000);
+        truck.pack(new Book("Jane", "Title", false));
+        truck.pack(new Furniture(CHAIR));
+        List<RecordedEvent> events = record(() -> {
+            truck.unpack();
+            truck.unpack();
+            truck.toString(1);
+        });
+        assertEquals(3, events.size());
+        assertEquals("mms.storage.Unpack", events.get(0).getEventType().getName());
+        // furniture is unpacked last in, first out
+        assertTrue(events.get(0).getBoolean("lastIn"));
+        assertEquals(Furniture.class.getName(),
+                events.get(0).getClass("itemType").getName());
+        assertEquals(1, events.get(0).getInt("occupancy"));
+        assertFalse(events.get(1).getBoolean("lastIn"));
+        RecordedEvent rendered = events.get(2);
+        assertEquals("mms.storage.Render", rendered.getEventType().getName());
+        assertEquals(1, rendered.getInt("level"));
+        assertEquals(truck.toString(1).length(),
+                rendered.getInt("characters"));
+    }
+
+    @Test
+    public void notRecordingTest()
+            throws IOException {
+        record(() -> assertNotNull(FlightEvents.startPack()));
+        // no event is created while nothing is being recorded
+        assertNull(FlightEvents.startPack());
+        assertNull(FlightEvents.startUnpack());
+        assertNull(FlightEvents.startRender());
+    }
+}
\ No newline at end of file
@@ -6,6 +6,9 @@ import org.junit.Test;
 
 import static org.junit.Assert.*;
 
+import java.util.Random;
+import java.util.List;
+
 import mms.furniture.Furniture;
 import mms.personal.Book;
 import mms.personal.Clothes;
@@ -14,12 +17,70 @@ import mms.personal.Laptop;
 import mms.exceptions.PackingOrderException;
 import mms.exceptions.PackingException;
 import mms.exceptions.StorageFullException;
+import mms.utility.Packable;
 
 import static mms.furniture.FurnitureType.*;
 import static mms.personal.ClotheType.*;
 import static mms.utility.Size.*;
 
 public class MovingTruckTest {
+    /**
+     * Reference copy of the original moving truck, which unpacked furniture
+     * by unpacking and re-packing every other item, used to check that the
+     * moving truck still unpacks in exactly the same order.
+     */
+    private static class RotatingMovingTruck extends Storage {
+        private int cabLength = 1500;
+
+        public RotatingMovingTruck(double width, double height, double length) {
+            super(width, height, length, LARGE);
+        }
+
+        protected int getMultiplier() {
+            return 4;
+        }
+
+        public void pack(Packable item)
+                throws PackingException {
+            if (furniturePreviouslyPacked() && !(item instanceof Furniture)) {
+                throw new PackingOrderException();
+            } else {
+                int totalItemsLength = 0;
+                for (Packable element : getElements()) {
+                    totalItemsLength += element.getLength();
+                }
+                if (totalItemsLength + item.getLength() > (getLength() - cabLength)) {
+                    throw new StorageFullException();
+                }
+            }
+            super.pack(item);
+        }
+
+        private boolean furniturePreviouslyPacked() {
+            for (Packable element : getElements()) {
+                if (element instanceof Furniture) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public Packable unpack() {
+            if (furniturePreviouslyPacked()) {
+                for (int index = 0; index < getElements().size() - 1; index++) {
+                    Packable itemToUnpackRepack = getElements().get(0);
+                    super.unpack();
+                    try {
+                        super.pack(itemToUnpackRepack);
+                    } catch (PackingException exception) {
+                        // item previously packed, unpacked, then re-packed
+                    }
+                }
+            }
+            return super.unpack();
+        }
+    }
+
     private MovingTruck movingTruck1;
     private MovingTruck movingTruck2;
 
@@ -162,6 +223,33 @@ public class MovingTruckTest {
                 movingTruck1.getElements().toString());
     }
 
+    @Test
+    public void tryPackOrderTest() {
+        assertEquals(PackResult.OK, movingTruck1.tryPack(laptop));
+        assertEquals(PackResult.OK, movingTruck1.tryPack(bed));
+        assertEquals(PackResult.WRONG_ORDER, movingTruck1.tryPack(socks));
+        assertEquals(PackResult.OK, movingTruck1.tryPack(chair));
+        assertEquals(3, movingTruck1.getOccupiedCapacity());
+        assertEquals(2, movingTruck1.getFurnitureCount());
+    }
+
+    @Test
+    public void countFitsTest()
+            throws PackingException {
+        // 100 cm of storage area behind the cab
+        MovingTruck truck = new MovingTruck(1000, 1000, 1600);
+        MovingTruck copy = new MovingTruck(1000, 1000, 1600);
+        assertEquals(100, truck.getRemainingLength(), 0.0);
+        // chairs are 50 cm long
+        assertEquals(2, truck.countFits(chair));
+        assertEquals(2, StorageTest.packCopies(copy, chair));
+        truck.pack(chair);
+        assertEquals(0, truck.countFits(laptop));
+        assertFalse(truck.canPack(laptop));
+        assertEquals(1, truck.countFits(chair));
+        assertEquals(1, truck.getOccupiedCapacity());
+    }
+
     @Test(expected = StorageFullException.class)
     public void occupiedCapacityGreaterThanCapacityTest()
             throws PackingException {
@@ -421,6 +509,39 @@ public class MovingTruckTest {
                 movingTruck1.getElementsOfType(table).toString());
     }
 
+    @Test
+    public void getElementsOfTypeClassTest()
+            throws PackingException {
+        movingTruck1.pack(laptop);
+        movingTruck1.pack(pants);
+        movingTruck1.pack(laptop);
+        movingTruck1.pack(shirt);
+        movingTruck1.pack(table);
+        movingTruck1.pack(television);
+
+        assertEquals("[Laptop (LaptopOwner) - 10, Laptop (LaptopOwner) - 10]",
+                movingTruck1.getElementsOfType(Laptop.class).toString());
+        assertEquals("[]",
+                movingTruck1.getElementsOfType(Book.class).toString());
+        assertNull(movingTruck1.getElementsOfType((Class<Packable>) null));
+
+        // unpack Furniture (TELEVISION)
+        movingTruck1.unpack();
+        assertEquals("[Furniture (TABLE)]",
+                movingTruck1.getElementsOfType(Furniture.class).toString());
+
+        // unpack Furniture (TABLE) then Laptop (LaptopOwner) - 10
+        movingTruck1.unpack();
+        movingTruck1.unpack();
+        assertEquals("[]",
+                movingTruck1.getElementsOfType(Furniture.class).toString());
+        assertEquals("[Laptop (LaptopOwner) - 10]",
+                movingTruck1.getElementsOfType(Laptop.class).toString());
+        assertEquals("[Clothes (PantsOwner) (LARGE, PANTS), " +
+                        "Clothes (ShirtOwner) (SMALL, SHIRT)]",
+                movingTruck1.getElementsOfType(Clothes.class).toString());
+    }
+
     @Test
     public void getOccupiedCapacityTest()
             throws PackingException {
@@ -533,4 +654,132 @@ public class MovingTruckTest {
                         "        Furniture (TELEVISION)",
                 movingTruck1.toString(1));
     }
+
+    @Test
+    public void renderMatchesToStringLevelTest()
+            throws Exception {
+        bag.pack(laptop);
+        box1.pack(bag);
+        box2.pack(television);
+        movingTruck1.pack(box1);
+        movingTruck1.pack(box2);
+        movingTruck1.pack(pants);
+        movingTruck1.pack(table);
+
+        StringBuilder rendered = new StringBuilder();
+        movingTruck1.render(rendered, 3);
+        assertEquals(movingTruck1.toString(3), rendered.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void toStringLevelLessThanZeroTest() {
+        movingTruck1.toString(-1);
+    }
+
+    @Test
+    public void getFurnitureCountTest()
+            throws PackingException {
+        movingTruck1.pack(laptop);
+        movingTruck1.pack(bed);
+        movingTruck1.pack(chair);
+        assertEquals(2, movingTruck1.getFurnitureCount());
+
+        // unpack Furniture (CHAIR)
+        movingTruck1.unpack();
+        assertEquals(1, movingTruck1.getFurnitureCount());
+
+        // unpack Furniture (BED)
+        movingTruck1.unpack();
+        assertEquals(0, movingTruck1.getFurnitureCount());
+
+        // non-furniture may be packed again once all furniture is removed
+        movingTruck1.pack(socks);
+        assertEquals("[Laptop (LaptopOwner) - 10, " +
+                        "Clothes (SocksOwner) (SMALL, SOCKS)]",
+                movingTruck1.getElements().toString());
+    }
+
+    @Test
+    public void unpackMatchesRotatingMovingTruckTest() {
+        MovingTruck movingTruck = new MovingTruck(1000, 1000, 2500);
+        RotatingMovingTruck reference = new RotatingMovingTruck(1000, 1000, 2500);
+        Packable[] items = {bag, box1, box2, book, laptop, pants, shirt,
+                shorts, socks, bed, chair, desk, table, television};
+        Random random = new Random(2002);
+
+        for (int operation = 0; operation < 5000; operation++) {
+            if (random.nextInt(10) < 6) {
+                Packable item = items[random.nextInt(items.length)];
+                Class<?> thrown = null;
+                Class<?> referenceThrown = null;
+                try {
+                    movingTruck.pack(item);
+                } catch (PackingException exception) {
+                    thrown = exception.getClass();
+                }
+                try {
+                    reference.pack(item);
+                } catch (PackingException exception) {
+                    referenceThrown = exception.getClass();
+                }
+                assertEquals(referenceThrown, thrown);
+            } else {
+                assertSame(reference.unpack(), movingTruck.unpack());
+            }
+            assertEquals(reference.getElements(), movingTruck.getElements());
+            assertEquals(reference.getElementsOfType(bed).size(),
+                    movingTruck.getFurnitureCount());
+        }
+    }
+
+    @Test
+    public void packAllTest() {
+        assertEquals(List.of(),
+                movingTruck1.packAll(List.of(book, laptop, bed, chair)));
+        assertEquals(4, movingTruck1.getOccupiedCapacity());
+        assertEquals(2, movingTruck1.getFurnitureCount());
+        assertSame(chair, movingTruck1.unpack());
+    }
+
+    @Test
+    public void packAllPackingOrderTest()
+            throws PackingException {
+        movingTruck1.pack(book);
+        assertEquals(List.of(1),
+                movingTruck1.packAll(List.of(bed, laptop, chair)));
+        assertEquals(1, movingTruck1.getOccupiedCapacity());
+        assertEquals(0, movingTruck1.getFurnitureCount());
+
+        // non-furniture may still be packed as no furniture was kept
+        movingTruck1.pack(laptop);
+        assertEquals(2, movingTruck1.getOccupiedCapacity());
+    }
+
+    @Test
+    public void placementBehindCabTest()
+            throws PackingException {
+        // 100 cm of storage area behind the cab
+        MovingTruck movingTruck = new MovingTruck(300, 300, 1600);
+        movingTruck.enablePlacement();
+        movingTruck.pack(bed);
+        movingTruck.pack(chair);
+        assertEquals(2, movingTruck.getPlacements().size());
+        for (Placement placement : movingTruck.getPlacements()) {
+            assertTrue(placement.getZ() + placement.getLength() <= 100);
+        }
+
+        // the table is 500 cm high, too high for the truck in any orientation
+        try {
+            movingTruck.pack(table);
+            fail();
+        } catch (StorageFullException expected) {
+            assertEquals(2, movingTruck.getOccupiedCapacity());
+        }
+        movingTruck.pack(television);
+        assertEquals(3, movingTruck.getFurnitureCount());
+
+        // unpacking furniture frees the space of the last item packed
+        assertSame(television, movingTruck.unpack());
+        assertEquals(2, movingTruck.getPlacements().size());
+    }
 }
\ No newline at end of file
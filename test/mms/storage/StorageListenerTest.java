@@ -0,0 +1,278 @@
+package mms.storage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.personal.Laptop;
+import mms.utility.Packable;
+
+import mms.exceptions.BadItemException;
+import mms.exceptions.PackingException;
+
+import static mms.furniture.FurnitureType.*;
+
+public class StorageListenerTest {
+    /**
+     * Listener recording each event as a string.
+     */
+    private static class RecordingListener implements StorageListener {
+        private final List<String> events = new ArrayList<>();
+
+        public void itemPacked(Storage storage, Packable item) {
+            events.add("packed " + item);
+        }
+
+        public void itemRejected(Storage storage, Packable item,
+                                 PackResult reason) {
+            events.add("rejected " + item + " " + reason);
+        }
+
+        public void itemUnpacked(Storage storage, Packable item) {
+            events.add("unpacked " + item);
+        }
+    }
+
+    private Bag bag;
+    private RecordingListener listener;
+
+    private Book book;
+    private Laptop laptop;
+    private Furniture chair;
+
+    @Before
+    public void setUp() {
+        bag = new Bag(1000, 1000, 1000);
+        listener = new RecordingListener();
+        bag.addListener(listener);
+
+        book = new Book("Jane", "Title", false);
+        laptop = new Laptop("Jane", 3);
+        chair = new Furniture(CHAIR);
+    }
+
+    @Test
+    public void packAndUnpackTest()
+            throws PackingException {
+        bag.pack(book);
+        assertEquals(PackResult.BAD_ITEM, bag.tryPack(chair));
+        assertEquals(PackResult.BAD_ITEM, bag.tryPack(null));
+        bag.unpack();
+        assertEquals(List.of("packed " + book,
+                "rejected " + chair + " BAD_ITEM",
+                "rejected null BAD_ITEM",
+                "unpacked " + book), listener.events);
+    }
+
+    @Test
+    public void packRejectedTest() {
+        try {
+            bag.pack(chair);
+            fail();
+        } catch (PackingException exception) {
+            assertTrue(exception instanceof BadItemException);
+        }
+        assertEquals(List.of("rejected " + chair + " BAD_ITEM"),
+                listener.events);
+    }
+
+    @Test
+    public void queriesNotReportedTest() {
+        bag.canPack(book);
+        bag.countFits(chair);
+        bag.unpack();
+        assertEquals(List.of(), listener.events);
+    }
+
+    @Test
+    public void packAllTest() {
+        bag.packAll(List.of(book, laptop));
+        assertEquals(List.of("packed " + book, "packed " + laptop),
+                listener.events);
+    }
+
+    @Test
+    public void packAllRejectedTest() {
+        // the items tentatively added and rolled back are not reported
+        bag.packAll(List.of(book, chair, laptop));
+        assertEquals(List.of("rejected " + chair + " BAD_ITEM"),
+                listener.events);
+        assertEquals(0, bag.getOccupiedCapacity());
+    }
+
+    @Test
+    public void packAllRejectedAfterRollbackTest() {
+        // rejections are reported only once the batch has been rolled back
+        Box box = new Box(1000, 1000, 1000, "");
+        List<String> seen = new ArrayList<>();
+        box.addListener(new StorageListener() {
+            public void itemRejected(Storage storage, Packable item,
+                                     PackResult reason) {
+                seen.add(storage.getOccupiedCapacity() + " "
+                        + ((Box) storage).isFragile());
+            }
+        });
+        box.packAll(Arrays.asList(laptop, null, book));
+        assertEquals(List.of("0 false"), seen);
+    }
+
+    @Test
+    public void unpackLastTest()
+            throws PackingException {
+        MovingTruck truck = new MovingTruck(1000, 1000, 3000);
+        truck.addListener(listener);
+        truck.pack(laptop);
+        truck.pack(chair);
+        truck.pack(Furniture.of(DESK));
+        assertEquals(PackResult.WRONG_ORDER, truck.tryPack(book));
+        truck.unpack();
+        assertEquals("rejected " + book + " WRONG_ORDER",
+                listener.events.get(3));
+        assertEquals("unpacked " + Furniture.of(DESK), listener.events.get(4));
+    }
+
+    @Test
+    public void addAndRemoveListenerTest()
+            throws PackingException {
+        RecordingListener other = new RecordingListener();
+        bag.addListener(other);
+        bag.addListener(listener);
+        bag.pack(book);
+        assertEquals(2, listener.events.size());
+        assertEquals(1, other.events.size());
+
+        assertTrue(bag.removeListener(listener));
+        assertTrue(bag.removeListener(listener));
+        assertFalse(bag.removeListener(listener));
+        bag.pack(laptop);
+        assertEquals(2, listener.events.size());
+        assertEquals(2, other.events.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addNullListenerTest() {
+        bag.addListener(null);
+    }
+
+    @Test
+    public void asyncTest()
+            throws PackingException {
+        List<StorageEvent> delivered = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        AsyncStorageListener async = new AsyncStorageListener(batch -> {
+            delivered.addAll(batch);
+            batchSizes.add(batch.size());
+        }, 4);
+        bag.addListener(async);
+        for (int count = 0; count < 5; count++) {
+            bag.pack(new Book("Jane", "Title " + count, false));
+        }
+        bag.tryPack(chair);
+        bag.unpack();
+        async.close();
+        async.close();
+
+        assertEquals(7, delivered.size());
+        for (int size : batchSizes) {
+            assertTrue(size >= 1 && size <= 4);
+        }
+        assertEquals(StorageEvent.Kind.PACKED, delivered.get(0).getKind());
+        assertSame(bag, delivered.get(0).getStorage());
+        assertEquals(StorageEvent.Kind.REJECTED, delivered.get(5).getKind());
+        assertEquals(PackResult.BAD_ITEM, delivered.get(5).getReason());
+        assertEquals("UNPACKED " + delivered.get(6).getItem() + " " + bag,
+                delivered.get(6).toString());
+
+        // replaying an event calls the listener as the storage did
+        delivered.get(5).deliverTo(listener);
+        assertEquals("rejected " + chair + " BAD_ITEM",
+                listener.events.get(listener.events.size() - 1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void asyncClosedTest()
+            throws PackingException {
+        AsyncStorageListener async = new AsyncStorageListener(batch -> { }, 4);
+        bag.addListener(async);
+        async.close();
+        bag.pack(book);
+    }
+
+    @Test
+    public void asyncCloseWhilePackingTest()
+            throws InterruptedException {
+        AtomicLong delivered = new AtomicLong();
+        AsyncStorageListener async = new AsyncStorageListener(
+                batch -> delivered.addAndGet(batch.size()), 2);
+        AtomicLong accepted = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            threads.add(new Thread(() -> {
+                Warehouse warehouse = new Warehouse(1.0E9, 1.0E9, 1.0E9);
+                warehouse.addListener(async);
+                try {
+                    while (true) {
+                        warehouse.tryPack(book);
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException exception) {
+                    // closed
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(50);
+        async.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // every event queued before close was delivered
+        assertEquals(accepted.get(), delivered.get());
+    }
+
+    @Test(timeout = 10000)
+    public void asyncConsumerPacksTest() {
+        // the consumer packs into an observed storage while the queue is full
+        Warehouse packed = new Warehouse(1.0E9, 1.0E9, 1.0E9);
+        Warehouse echoed = new Warehouse(1.0E9, 1.0E9, 1.0E9);
+        AtomicLong delivered = new AtomicLong();
+        AsyncStorageListener async = new AsyncStorageListener(batch -> {
+            for (StorageEvent event : batch) {
+                delivered.incrementAndGet();
+                if (event.getStorage() == packed) {
+                    echoed.tryPack(laptop);
+                }
+            }
+        }, 1);
+        packed.addListener(async);
+        echoed.addListener(async);
+        for (int count = 0; count < 100; count++) {
+            packed.tryPack(book);
+        }
+        // events raised by the consumer after close would be rejected
+        while (delivered.get() < 200) {
+            Thread.onSpinWait();
+        }
+        async.close();
+        assertEquals(200, delivered.get());
+        assertEquals(100, echoed.getOccupiedCapacity());
+    }
+
+    @Test
+    public void asyncCloseInterruptedTest() {
+        AsyncStorageListener async = new AsyncStorageListener(batch -> { }, 4);
+        Thread.currentThread().interrupt();
+        async.close();
+        assertTrue(Thread.interrupted());
+    }
+}
\ No newline at end of file
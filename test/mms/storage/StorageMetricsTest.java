@@ -0,0 +1,171 @@
+package mms.storage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.personal.Laptop;
+
+import mms.exceptions.PackingException;
+
+import static mms.furniture.FurnitureType.*;
+import static mms.storage.StorageMetrics.Operation.*;
+
+public class StorageMetricsTest {
+    private Bag bag;
+    private Box box;
+
+    private Book book;
+    private Laptop laptop;
+    private Furniture chair;
+
+    @Before
+    public void setUp() {
+        StorageMetrics.reset();
+        StorageMetrics.enable();
+        bag = new Bag(1000, 1000, 1000);
+        box = new Box(1000, 1000, 1000, "Comment");
+
+        book = new Book("Jane", "Title", false);
+        laptop = new Laptop("Jane", 3);
+        chair = new Furniture(CHAIR);
+    }
+
+    @After
+    public void tearDown() {
+        StorageMetrics.disable();
+        StorageMetrics.reset();
+    }
+
+    @Test
+    public void countsTest()
+            throws PackingException {
+        bag.pack(book);
+        bag.tryPack(chair);
+        bag.packAll(List.of(laptop, chair));
+        bag.unpack();
+        bag.getElementsOfType(book);
+        box.pack(bag);
+        box.toString(0);
+
+        MetricsSnapshot snapshot = StorageMetrics.snapshot();
+        assertEquals(2, snapshot.getCalls(Bag.class, PACK));
+        assertEquals(1, snapshot.getCalls(Bag.class, PACK_ALL));
+        assertEquals(1, snapshot.getCalls(Bag.class, UNPACK));
+        assertEquals(1, snapshot.getCalls(Bag.class, GET_ELEMENTS_OF_TYPE));
+        assertEquals(0, snapshot.getCalls(Bag.class, TO_STRING));
+        assertEquals(2, snapshot.getRejections(Bag.class, PackResult.BAD_ITEM));
+        assertEquals(0, snapshot.getRejections(Bag.class, PackResult.OK));
+        assertEquals(1, snapshot.getCalls(Box.class, PACK));
+        assertEquals(1, snapshot.getCalls(Box.class, TO_STRING));
+        assertEquals(0, snapshot.getCalls(MovingTruck.class, PACK));
+        assertNull(snapshot.getLatencies(MovingTruck.class, PACK));
+
+        HistogramSnapshot latencies = snapshot.getLatencies(Bag.class, PACK);
+        assertEquals(2, latencies.getCount());
+        assertTrue(latencies.getMax() >= latencies.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void subclassCountedOnceTest() {
+        MovingTruck truck = new MovingTruck(1000, 1000, 3000);
+        truck.tryPack(chair);
+        truck.tryPack(laptop);
+        truck.unpack();
+
+        MetricsSnapshot snapshot = StorageMetrics.snapshot();
+        assertEquals(2, snapshot.getCalls(MovingTruck.class, PACK));
+        assertEquals(1, snapshot.getCalls(MovingTruck.class, UNPACK));
+        assertEquals(1, snapshot.getRejections(MovingTruck.class,
+                PackResult.WRONG_ORDER));
+    }
+
+    @Test
+    public void disabledTest() {
+        StorageMetrics.disable();
+        assertFalse(StorageMetrics.isEnabled());
+        bag.tryPack(book);
+        assertEquals(0, StorageMetrics.snapshot().getCalls(Bag.class, PACK));
+    }
+
+    @Test
+    public void samplingTest() {
+        StorageMetrics.enable(1000);
+        for (int count = 0; count < 2000; count++) {
+            bag.tryPack(chair);
+        }
+        MetricsSnapshot snapshot = StorageMetrics.snapshot();
+        assertEquals(2000, snapshot.getCalls(Bag.class, PACK));
+        assertEquals(2000, snapshot.getRejections(Bag.class,
+                PackResult.BAD_ITEM));
+        assertTrue(snapshot.getLatencies(Bag.class, PACK).getCount() < 2000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSamplingPeriodTest() {
+        StorageMetrics.enable(0);
+    }
+
+    @Test
+    public void resetTest() {
+        bag.tryPack(book);
+        StorageMetrics.reset();
+        assertEquals(0, StorageMetrics.snapshot().getCalls(Bag.class, PACK));
+        assertEquals("", StorageMetrics.snapshot().toText());
+    }
+
+    @Test
+    public void bucketsTest() {
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            long lowest = LatencyHistogram.lowestOf(bucket);
+            long highest = LatencyHistogram.highestOf(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(lowest));
+            assertEquals(bucket, LatencyHistogram.bucketOf(highest));
+            // within 25% of the smallest latency in the bucket
+            assertTrue(highest - lowest <= Math.max(0, lowest / 4));
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1,
+                LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void histogramTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(70);
+        histogram.record(85);
+        histogram.record(100);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(3, snapshot.getCount());
+        assertEquals(85.0, snapshot.getMean(), 0.0);
+        assertEquals(95, snapshot.getValueAtPercentile(50));
+        assertEquals(100, snapshot.getValueAtPercentile(99));
+        assertEquals(79, snapshot.getValueAtPercentile(0));
+        assertEquals("n=3 mean=85 p50=95 p90=100 p99=100 max=100",
+                snapshot.toString());
+        assertEquals("{\"count\":3,\"mean\":85.0,\"p50\":95,\"p90\":100,"
+                + "\"p99\":100,\"max\":100,"
+                + "\"buckets\":[[64,1],[80,1],[96,1]]}", snapshot.toJson());
+        assertEquals(0, new LatencyHistogram().snapshot()
+                .getValueAtPercentile(50));
+    }
+
+    @Test
+    public void exportTest() {
+        bag.tryPack(chair);
+        MetricsSnapshot snapshot = StorageMetrics.snapshot();
+        String text = snapshot.toText();
+        assertTrue(text.startsWith("Bag\n\tPACK calls=1 n=1 "));
+        assertTrue(text.endsWith("\n\trejected BAD_ITEM (BadItemException) 1\n"));
+        String json = snapshot.toJson();
+        assertTrue(json.startsWith("{\"mms.storage.Bag\":{\"operations\":"
+                + "{\"PACK\":{\"calls\":1,\"latencies\":{\"count\":1,"));
+        assertTrue(json.endsWith("]}}},\"rejections\":{\"BAD_ITEM\":"
+                + "{\"exception\":\"BadItemException\",\"count\":1}}}}"));
+    }
+}
\ No newline at end of file
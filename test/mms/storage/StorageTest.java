@@ -0,0 +1,716 @@
+package mms.storage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import mms.exceptions.BadItemException;
+import mms.exceptions.PackingException;
+import mms.exceptions.PackingOrderException;
+import mms.exceptions.StorageFullException;
+import mms.personal.Book;
+import mms.personal.Laptop;
+import mms.utility.Packable;
+
+public class StorageTest {
+    /**
+     * Storage with a very large capacity so that packing cost can be measured
+     * as the storage fills up.
+     */
+    private static class Depot extends Storage {
+        public Depot(double width, double height, double length) {
+            super(width, height, length);
+        }
+
+        protected int getMultiplier() {
+            return 100000;
+        }
+    }
+
+    /**
+     * Packable item that counts how many times its dimensions are read.
+     */
+    private static class CountingItem implements Packable {
+        private static long reads = 0;
+
+        private double width;
+        private double height;
+        private double length;
+
+        public CountingItem(double width, double height, double length) {
+            this.width = width;
+            this.height = height;
+            this.length = length;
+        }
+
+        public double getWidth() {
+            reads++;
+            return width;
+        }
+
+        public double getHeight() {
+            reads++;
+            return height;
+        }
+
+        public double getLength() {
+            reads++;
+            return length;
+        }
+    }
+
+    private Depot depot;
+    private Box box;
+
+    @Before
+    public void setUp() {
+        depot = new Depot(1.0E9, 1.0E9, 1.0E9);
+        box = new Box(100, 100, 100, "Comment");
+        CountingItem.reads = 0;
+    }
+
+    @Test
+    public void totalsAfterPackTest()
+            throws PackingException {
+        box.pack(new CountingItem(10, 20, 30));
+        box.pack(new CountingItem(5.9, 5.9, 5.9));
+
+        assertEquals(15, box.getTotalItemsWidth());
+        assertEquals(25, box.getTotalItemsHeight());
+        assertEquals(35, box.getTotalItemsLength());
+    }
+
+    @Test
+    public void totalsAfterUnpackTest()
+            throws PackingException {
+        box.pack(new CountingItem(10, 20, 30));
+        box.pack(new CountingItem(5.9, 5.9, 5.9));
+        box.unpack();
+
+        assertEquals(5, box.getTotalItemsWidth());
+        assertEquals(5, box.getTotalItemsHeight());
+        assertEquals(5, box.getTotalItemsLength());
+
+        box.unpack();
+        assertEquals(0, box.getTotalItemsWidth());
+        assertEquals(0, box.getTotalItemsHeight());
+        assertEquals(0, box.getTotalItemsLength());
+    }
+
+    @Test
+    public void packAfterUnpackFreesDimensionsTest()
+            throws PackingException {
+        box.pack(new CountingItem(60, 60, 10));
+        box.unpack();
+        box.pack(new CountingItem(60, 60, 10));
+        assertEquals(1, box.getOccupiedCapacity());
+    }
+
+    @Test(expected = StorageFullException.class)
+    public void overWidthOverHeightTest()
+            throws PackingException {
+        box.pack(new CountingItem(60, 60, 10));
+        box.pack(new CountingItem(50, 50, 10));
+    }
+
+    @Test
+    public void packCostFlatAsOccupancyGrowsTest()
+            throws PackingException {
+        // dimension reads needed to pack into an empty storage
+        depot.pack(new CountingItem(1, 1, 1));
+        long firstPackReads = CountingItem.reads;
+
+        for (int count = 1; count < 50000; count++) {
+            depot.pack(new CountingItem(1, 1, 1));
+        }
+
+        // dimension reads needed to pack into a storage of 50000 items
+        CountingItem.reads = 0;
+        depot.pack(new CountingItem(1, 1, 1));
+
+        assertEquals(50001, depot.getOccupiedCapacity());
+        assertEquals(firstPackReads, CountingItem.reads);
+    }
+
+    @Test
+    public void unpackFirstInFirstOutTest()
+            throws PackingException {
+        CountingItem[] items = new CountingItem[100];
+        for (int index = 0; index < items.length; index++) {
+            items[index] = new CountingItem(1, 1, 1);
+        }
+        // interleave packing and unpacking so the elements wrap around
+        int packed = 0;
+        int unpacked = 0;
+        while (unpacked < items.length) {
+            for (int count = 0; count < 3 && packed < items.length; count++) {
+                depot.pack(items[packed++]);
+            }
+            for (int count = 0; count < 2 && unpacked < packed; count++) {
+                assertSame(items[unpacked++], depot.unpack());
+            }
+            assertEquals(packed - unpacked, depot.getOccupiedCapacity());
+        }
+        assertNull(depot.unpack());
+    }
+
+    @Test
+    public void getTotalItemsVolumeTest()
+            throws PackingException {
+        assertEquals(0.0, depot.getTotalItemsVolume(), 0.001);
+        // interleave packing and unpacking so the dimensions wrap around,
+        // where the nth item packed is 1 * 2 * n cm
+        int packed = 0;
+        int unpacked = 0;
+        while (packed < 100) {
+            for (int count = 0; count < 3; count++) {
+                packed++;
+                depot.pack(new CountingItem(1, 2, packed));
+            }
+            for (int count = 0; count < 2; count++) {
+                unpacked++;
+                depot.unpack();
+            }
+            // sum of 2 * n for the items still packed
+            double expected = (packed * (packed + 1.0))
+                    - (unpacked * (unpacked + 1.0));
+            assertEquals(expected, depot.getTotalItemsVolume(), 0.001);
+        }
+    }
+
+    @Test
+    public void unpackReadsNoDimensionsTest()
+            throws PackingException {
+        for (int count = 0; count < 10; count++) {
+            box.pack(new CountingItem(1, 1, 1));
+        }
+        CountingItem.reads = 0;
+        box.unpack();
+        box.getTotalItemsVolume();
+        assertEquals(0, CountingItem.reads);
+        assertEquals(9, box.getTotalItemsWidth());
+    }
+
+    @Test
+    public void getElementsAfterUnpackTest()
+            throws PackingException {
+        for (int count = 0; count < 10; count++) {
+            box.pack(new CountingItem(1, 1, 1));
+        }
+        Packable second = box.getElements().get(1);
+        box.unpack();
+        assertSame(second, box.getElements().get(0));
+        assertEquals(9, box.getElements().size());
+    }
+
+    @Test
+    public void elementsViewReflectsPackAndUnpackTest()
+            throws PackingException {
+        List<Packable> view = box.elementsView();
+        CountingItem first = new CountingItem(1, 1, 1);
+        CountingItem second = new CountingItem(1, 1, 1);
+        box.pack(first);
+        box.pack(second);
+        assertEquals(2, view.size());
+        assertSame(first, view.get(0));
+
+        box.unpack();
+        assertEquals(1, view.size());
+        assertSame(second, view.get(0));
+        assertSame(view, box.elementsView());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void elementsViewUnmodifiableTest()
+            throws PackingException {
+        box.pack(new CountingItem(1, 1, 1));
+        box.elementsView().remove(0);
+    }
+
+    @Test
+    public void forEachElementInsertionOrderTest()
+            throws PackingException {
+        for (int count = 0; count < 5; count++) {
+            box.pack(new CountingItem(1, 1, 1));
+        }
+        List<Packable> visited = new ArrayList<>();
+        box.forEachElement(visited::add);
+        assertEquals(box.getElements(), visited);
+    }
+
+    @Test
+    public void packAllInOrderTest() {
+        List<Packable> items = new ArrayList<>();
+        for (int count = 0; count < 1000; count++) {
+            items.add(new CountingItem(1, 1, 1));
+        }
+        assertEquals(List.of(), depot.packAll(items));
+        assertEquals(items, depot.getElements());
+        assertEquals(1000, depot.getTotalItemsWidth());
+    }
+
+    @Test
+    public void packAllRejectedLeavesStorageUnchangedTest()
+            throws PackingException {
+        box.pack(new CountingItem(10, 10, 10));
+        List<Packable> before = box.getElements();
+
+        // the third item exceeds both the width and height of the box
+        List<Integer> rejected = box.packAll(Arrays.asList(
+                new CountingItem(10, 10, 10),
+                null,
+                new CountingItem(90, 90, 1),
+                new CountingItem(10, 10, 10)));
+        assertEquals(List.of(1, 2), rejected);
+        assertEquals(before, box.getElements());
+        assertEquals(10, box.getTotalItemsWidth());
+        assertEquals(10, box.getTotalItemsHeight());
+        assertEquals(10, box.getTotalItemsLength());
+    }
+
+    @Test
+    public void packAllOverCapacityTest() {
+        List<Packable> items = new ArrayList<>();
+        for (int count = 0; count < 12; count++) {
+            items.add(new CountingItem(1, 1, 1));
+        }
+        // a medium box holds ten items
+        assertEquals(List.of(10, 11), box.packAll(items));
+        assertEquals(0, box.getOccupiedCapacity());
+    }
+
+    @Test
+    public void packAllRejectedKeepsBoxNotFragileTest() {
+        List<Integer> rejected = box.packAll(Arrays.asList(
+                new Laptop("Owner", 10), new CountingItem(200, 200, 200)));
+        assertEquals(List.of(1), rejected);
+        assertFalse(box.isFragile());
+
+        assertEquals(List.of(), box.packAll(List.of(new Laptop("Owner", 10))));
+        assertTrue(box.isFragile());
+    }
+
+    @Test
+    public void placementAcceptsWhatSumsRejectTest()
+            throws PackingException {
+        // eight 50 cm cubes fill a 100 cm box, but their sums exceed it
+        box.pack(new CountingItem(50, 50, 50));
+        box.pack(new CountingItem(50, 50, 50));
+        try {
+            box.pack(new CountingItem(50, 50, 50));
+            fail();
+        } catch (StorageFullException expected) {
+            // sums of all three dimensions exceed the box
+        }
+
+        Box placedBox = new Box(100, 100, 100, "Comment");
+        placedBox.enablePlacement();
+        for (int count = 0; count < 8; count++) {
+            placedBox.pack(new CountingItem(50, 50, 50));
+        }
+        assertEquals(8, placedBox.getPlacements().size());
+        assertEquals("(50.00, 50.00, 50.00) 50.00 x 50.00 x 50.00",
+                placedBox.getPlacements().get(7).toString());
+    }
+
+    @Test
+    public void placementRejectsWhatSumsAcceptTest()
+            throws PackingException {
+        // only the width of the item exceeds the box
+        box.pack(new CountingItem(200, 10, 10));
+
+        Box placedBox = new Box(100, 100, 100, "Comment");
+        placedBox.enablePlacement();
+        assertEquals(List.of(0), placedBox.packAll(
+                List.of(new CountingItem(200, 10, 10))));
+        assertEquals(0, placedBox.getOccupiedCapacity());
+        assertTrue(placedBox.getPlacements().isEmpty());
+    }
+
+    @Test
+    public void placementFreedOnUnpackTest()
+            throws PackingException {
+        box.enablePlacement();
+        for (int count = 0; count < 8; count++) {
+            box.pack(new CountingItem(50, 50, 50));
+        }
+        box.unpack();
+        List<Placement> placements = box.getPlacements();
+        assertEquals(7, placements.size());
+        assertEquals(50, placements.get(0).getX(), 0.001);
+
+        // the space of the first item unpacked is used again
+        box.pack(new CountingItem(50, 50, 50));
+        assertEquals(0, box.getPlacements().get(7).getX(), 0.001);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void placementOnNonEmptyStorageTest()
+            throws PackingException {
+        box.pack(new CountingItem(1, 1, 1));
+        box.enablePlacement();
+    }
+
+    @Test
+    public void getItemsOfOwnerNestedTest()
+            throws PackingException {
+        Box crate = new Box(500, 500, 500, "Crate");
+        Bag bag = new Bag(100, 100, 100);
+        Laptop laptop = new Laptop("Jane", 3);
+        Book janeBook = new Book("Jane", "Title", false);
+        Book bobBook = new Book("Bob", "Title", false);
+        bag.pack(laptop);
+        crate.pack(bag);
+        crate.pack(janeBook);
+        crate.pack(bobBook);
+        MovingTruck truck = new MovingTruck(1000, 1000, 3000);
+        truck.pack(crate);
+
+        List<OwnedItem> owned = truck.getItemsOfOwner("Jane");
+        assertEquals(2, owned.size());
+        // grouped by container, in the order the containers were indexed
+        assertSame(janeBook, owned.get(0).getItem());
+        assertSame(crate, owned.get(0).getContainer());
+        assertSame(laptop, owned.get(1).getItem());
+        assertSame(bag, owned.get(1).getContainer());
+        assertEquals("Laptop (Jane) - 3 in Bag (100.00, 100.00, 100.00) MEDIUM",
+                owned.get(1).toString());
+
+        // items packed into a nested storage are found from the truck
+        Book later = new Book("Jane", "Later", false);
+        bag.pack(later);
+        assertSame(later, truck.getItemsOfOwner("Jane").get(2).getItem());
+        assertEquals(3, truck.getItemsOfOwner("Jane").size());
+        assertEquals(1, truck.getItemsOfOwner("Bob").size());
+        assertTrue(truck.getItemsOfOwner("Nobody").isEmpty());
+        assertNull(truck.getItemsOfOwner(null));
+
+        // unpacking the bag removes its items from the crate and the truck
+        assertSame(bag, crate.unpack());
+        assertEquals(1, truck.getItemsOfOwner("Jane").size());
+        assertSame(janeBook, truck.getItemsOfOwner("Jane").get(0).getItem());
+        assertEquals(2, bag.getItemsOfOwner("Jane").size());
+
+        truck.unpack();
+        assertTrue(truck.getItemsOfOwner("Jane").isEmpty());
+        assertEquals(1, crate.getItemsOfOwner("Jane").size());
+    }
+
+    @Test
+    public void getItemsOfOwnerPackedTwiceTest()
+            throws PackingException {
+        Box crate = new Box(500, 500, 500, "Crate");
+        Bag bag = new Bag(100, 100, 100);
+        Book book = new Book("Jane", "Title", false);
+        bag.pack(book);
+        bag.pack(book);
+        crate.pack(bag);
+        crate.pack(bag);
+
+        // the book is listed once for each time it is in the bag, however
+        // many times the bag is in the crate
+        assertEquals(2, crate.getItemsOfOwner("Jane").size());
+
+        crate.unpack();
+        assertEquals(2, crate.getItemsOfOwner("Jane").size());
+        bag.unpack();
+        assertEquals(1, crate.getItemsOfOwner("Jane").size());
+        crate.unpack();
+        assertTrue(crate.getItemsOfOwner("Jane").isEmpty());
+        assertEquals(1, bag.getItemsOfOwner("Jane").size());
+    }
+
+    @Test
+    public void deepTotalsNestedTest()
+            throws PackingException {
+        Box crate = new Box(500, 500, 500, "Crate");
+        Bag bag = new Bag(100, 100, 100);
+        MovingTruck truck = new MovingTruck(1000, 1000, 3000);
+        // a laptop is 35 * 20 * 2 cm and 1000 g, a book 20 * 20 * 5 cm and 250 g
+        bag.pack(new Laptop("Jane", 3));
+        crate.pack(bag);
+        crate.pack(new Book("Jane", "Title", false));
+        truck.pack(crate);
+        truck.pack(new CountingItem(10, 10, 10));
+
+        assertEquals(3, truck.getDeepItemCount());
+        assertEquals(1400.0 + 2000.0 + 1000.0, truck.getDeepItemsVolume(), 0.001);
+        assertEquals(1250, truck.getDeepItemsWeight());
+
+        // packing into the bag inside the crate inside the truck
+        bag.pack(new Book("Bob", "Title", false));
+        assertEquals(4, truck.getDeepItemCount());
+        assertEquals(3, crate.getDeepItemCount());
+        assertEquals(1500, truck.getDeepItemsWeight());
+
+        // unpacking the bag takes its items out of the crate and the truck
+        crate.unpack();
+        assertEquals(2, truck.getDeepItemCount());
+        assertEquals(2000.0 + 1000.0, truck.getDeepItemsVolume(), 0.001);
+        assertEquals(250, truck.getDeepItemsWeight());
+        assertEquals(2, bag.getDeepItemCount());
+
+        truck.unpack();
+        truck.unpack();
+        assertEquals(0, truck.getDeepItemCount());
+        assertEquals(0.0, truck.getDeepItemsVolume(), 0.0);
+        assertEquals(0, truck.getDeepItemsWeight());
+    }
+
+    @Test
+    public void deepTotalsPackedTwiceTest()
+            throws PackingException {
+        Box crate = new Box(500, 500, 500, "Crate");
+        Bag bag = new Bag(100, 100, 100);
+        bag.pack(new Laptop("Jane", 3));
+        crate.pack(bag);
+        crate.pack(bag);
+        assertEquals(2, crate.getDeepItemCount());
+        assertEquals(2000, crate.getDeepItemsWeight());
+
+        bag.pack(new Book("Jane", "Title", false));
+        assertEquals(4, crate.getDeepItemCount());
+        assertEquals(2500, crate.getDeepItemsWeight());
+
+        crate.unpack();
+        assertEquals(2, crate.getDeepItemCount());
+        assertEquals(1250, crate.getDeepItemsWeight());
+    }
+
+    @Test
+    public void deepTotalsSharedAncestorsTest()
+            throws PackingException {
+        // each level has two storages that both hold both storages of the
+        // level below, so the bottom is within the top in 2^31 ways, more
+        // than an int can count
+        Box bottom = new Box(100, 100, 100, "Bottom");
+        Box[] below = {bottom};
+        for (int level = 1; level <= 32; level++) {
+            double side = 100 * Math.pow(2, level);
+            Box[] current = {new Box(side, side, side, "Left"),
+                    new Box(side, side, side, "Right")};
+            for (Box storage : current) {
+                for (Box inner : below) {
+                    storage.pack(inner);
+                }
+            }
+            below = current;
+        }
+
+        // each storage above the bottom is updated once per change
+        bottom.pack(new Book("Jane", "Title", false));
+        assertEquals(1L << 31, below[0].getDeepItemCount());
+        assertEquals(250L << 31, below[1].getDeepItemsWeight());
+        assertEquals(1, below[0].getItemsOfOwner("Jane").size());
+
+        bottom.unpack();
+        assertEquals(0, below[0].getDeepItemCount());
+        assertTrue(below[1].getItemsOfOwner("Jane").isEmpty());
+    }
+
+    @Test
+    public void deepTotalsLongChainTest()
+            throws PackingException {
+        // each box is packed into the next, far deeper than the call stack
+        Box bottom = new Box(100, 100, 100, "Bottom");
+        Box top = bottom;
+        for (int level = 1; level < 10000; level++) {
+            Box next = new Box(100, 100, 100, "Level");
+            next.pack(top);
+            top = next;
+        }
+
+        bottom.pack(new Book("Jane", "Title", false));
+        assertEquals(1, top.getDeepItemCount());
+        assertEquals(250, top.getDeepItemsWeight());
+        assertEquals(1, top.getItemsOfOwner("Jane").size());
+
+        bottom.unpack();
+        assertEquals(0, top.getDeepItemCount());
+        assertTrue(top.getItemsOfOwner("Jane").isEmpty());
+    }
+
+    @Test
+    public void deepTotalsRolledBackTest() {
+        Book book = new Book("Jane", "Title", false);
+        // the second item does not fit, so the batch is rejected
+        assertEquals(List.of(1),
+                box.packAll(List.of(book, new CountingItem(200, 200, 200))));
+        assertEquals(0, box.getDeepItemCount());
+        assertEquals(0.0, box.getDeepItemsVolume(), 0.0);
+        assertEquals(0, box.getDeepItemsWeight());
+    }
+
+    @Test(expected = BadItemException.class)
+    public void packIntoItselfTest()
+            throws PackingException {
+        box.pack(box);
+    }
+
+    @Test(expected = BadItemException.class)
+    public void packIntoNestedStorageTest()
+            throws PackingException {
+        Box inner = new Box(50, 50, 50, "Inner");
+        box.pack(inner);
+        inner.pack(box);
+    }
+
+    @Test
+    public void tryPackTest() {
+        assertEquals(PackResult.OK, box.tryPack(new CountingItem(60, 60, 60)));
+        assertEquals(1, box.getOccupiedCapacity());
+        // exceeds the sums of the widths, heights and lengths
+        assertEquals(PackResult.FULL_DIMENSIONS,
+                box.tryPack(new CountingItem(60, 60, 60)));
+        assertEquals(PackResult.BAD_ITEM, box.tryPack(box));
+        assertEquals(PackResult.BAD_ITEM, box.tryPack(null));
+        assertEquals(1, box.getOccupiedCapacity());
+    }
+
+    @Test
+    public void tryPackFullCapacityTest() {
+        for (int count = 0; count < box.getCapacity(); count++) {
+            assertEquals(PackResult.OK, box.tryPack(new CountingItem(1, 1, 1)));
+        }
+        assertEquals(PackResult.FULL_CAPACITY,
+                box.tryPack(new CountingItem(1, 1, 1)));
+        assertEquals(box.getCapacity(), box.getOccupiedCapacity());
+    }
+
+    @Test
+    public void toExceptionTest() {
+        assertNull(PackResult.OK.toException());
+        assertTrue(PackResult.FULL_CAPACITY.toException()
+                instanceof StorageFullException);
+        assertTrue(PackResult.FULL_DIMENSIONS.toException()
+                instanceof StorageFullException);
+        assertTrue(PackResult.OVERWEIGHT.toException()
+                instanceof StorageFullException);
+        assertTrue(PackResult.BAD_ITEM.toException()
+                instanceof BadItemException);
+        assertTrue(PackResult.WRONG_ORDER.toException()
+                instanceof PackingOrderException);
+        // a new exception, with a stack trace, unless stackless is enabled
+        assertEquals(PackingException.isStackless(),
+                PackResult.BAD_ITEM.toException()
+                        == PackResult.BAD_ITEM.toException());
+    }
+
+    @Test
+    public void stacklessExceptionTest() {
+        StorageFullException exception = StorageFullException.stackless();
+        assertSame(exception, StorageFullException.stackless());
+        assertEquals(0, exception.getStackTrace().length);
+        exception.fillInStackTrace();
+        exception.addSuppressed(new RuntimeException());
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(0, exception.getSuppressed().length);
+        assertNull(exception.getMessage());
+        assertEquals(0, BadItemException.stackless().getStackTrace().length);
+        assertEquals(0,
+                PackingOrderException.stackless().getStackTrace().length);
+    }
+
+    /**
+     * Packs copies of the item until one is rejected, returning how many
+     * were packed.
+     */
+    static int packCopies(Storage storage, Packable item) {
+        int packed = 0;
+        while (storage.tryPack(item) == PackResult.OK) {
+            packed++;
+        }
+        return packed;
+    }
+
+    @Test
+    public void canPackTest()
+            throws PackingException {
+        Packable item = new CountingItem(60, 60, 60);
+        assertTrue(box.canPack(item));
+        box.pack(item);
+        assertFalse(box.canPack(item));
+        assertFalse(box.canPack(box));
+        assertFalse(box.canPack(null));
+        assertEquals(1, box.getOccupiedCapacity());
+        assertEquals(60, box.getTotalItemsWidth());
+    }
+
+    @Test
+    public void canPackKeepsPlacementsTest()
+            throws PackingException {
+        Box probed = new Box(100, 100, 100, "Probed");
+        Box unprobed = new Box(100, 100, 100, "Unprobed");
+        probed.enablePlacement();
+        unprobed.enablePlacement();
+        probed.pack(new CountingItem(40, 10, 10));
+        unprobed.pack(new CountingItem(40, 10, 10));
+
+        // neither fits beside the first item, but both fit above it
+        assertTrue(probed.canPack(new CountingItem(62, 62, 62)));
+        assertTrue(probed.canPack(new CountingItem(61, 61, 99)));
+        assertTrue(probed.countFits(new CountingItem(63, 63, 63)) > 0);
+
+        probed.pack(new CountingItem(5, 5, 5));
+        unprobed.pack(new CountingItem(5, 5, 5));
+        assertEquals("(40.00, 0.00, 0.00) 5.00 x 5.00 x 5.00",
+                unprobed.getPlacements().get(1).toString());
+        assertEquals(unprobed.getPlacements().toString(),
+                probed.getPlacements().toString());
+    }
+
+    @Test
+    public void countFitsTest()
+            throws PackingException {
+        box.pack(new CountingItem(5, 5, 5));
+        Packable[] items = {
+                new CountingItem(30.5, 60, 10),
+                new CountingItem(10, 10, 10),
+                new CountingItem(200, 1, 1),
+                new CountingItem(200, 200, 1),
+                new CountingItem(0.5, 0.5, 0.5)
+        };
+        for (Packable item : items) {
+            Box copy = new Box(100, 100, 100, "Copy");
+            copy.pack(new CountingItem(5, 5, 5));
+            int count = box.countFits(item);
+            assertEquals(packCopies(copy, item), count);
+        }
+        // 3 widths of 30 fit, 1 height of 60, and 9 lengths of 10
+        assertEquals(3, box.countFits(new CountingItem(30.5, 60, 10)));
+        // only one item was packed, and counting changed nothing
+        assertEquals(1, box.getOccupiedCapacity());
+        assertEquals(0, box.countFits(box));
+        assertEquals(0, box.countFits(null));
+    }
+
+    @Test
+    public void countFitsPlacementTest()
+            throws PackingException {
+        box.enablePlacement();
+        box.pack(new CountingItem(100, 100, 60));
+        assertTrue(box.canPack(new CountingItem(100, 100, 40)));
+        assertFalse(box.canPack(new CountingItem(100, 100, 41)));
+        assertEquals(box.getRemainingCapacity(),
+                box.countFits(new CountingItem(10, 10, 10)));
+        assertEquals(0, box.countFits(new CountingItem(100, 100, 41)));
+        assertEquals(1, box.getOccupiedCapacity());
+    }
+
+    @Test
+    public void remainingTest()
+            throws PackingException {
+        box.pack(new CountingItem(10.9, 20, 30));
+        box.pack(new CountingItem(100, 1, 1));
+        assertEquals(box.getCapacity() - 2, box.getRemainingCapacity());
+        // one sum may be exceeded
+        assertEquals(-10, box.getRemainingWidth(), 0.0);
+        assertEquals(79, box.getRemainingHeight(), 0.0);
+        assertEquals(69, box.getRemainingLength(), 0.0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package mms.storage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import mms.furniture.Furniture;
+import mms.personal.Book;
+import mms.personal.Laptop;
+import mms.utility.Packable;
+
+import mms.exceptions.PackingException;
+
+import static mms.furniture.FurnitureType.*;
+import static mms.utility.Size.*;
+
+public class WarehouseTest {
+    /**
+     * more items than fit on two pages of a warehouse
+     */
+    private static final int ITEMS = 2 * PagedStore.PAGE_SIZE + 100;
+
+    private Warehouse warehouse;
+
+    private Book book;
+    private Laptop laptop;
+    private Furniture chair;
+
+    @Before
+    public void setUp() {
+        warehouse = new Warehouse(1.0E9, 1.0E9, 1.0E9);
+
+        book = new Book("BookOwner", "BookTitle", false);
+        laptop = new Laptop("LaptopOwner", 10);
+        chair = new Furniture(CHAIR);
+    }
+
+    @Test
+    public void getCapacityTest() {
+        assertEquals(2000000, warehouse.getCapacity());
+        assertEquals(600000, new Warehouse(10, 10, 10, SMALL).getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void widthEqualToZeroTest() {
+        new Warehouse(0, 1000, 1000);
+    }
+
+    @Test
+    public void unpackFirstInFirstOutAcrossPagesTest()
+            throws PackingException {
+        Packable[] items = new Packable[ITEMS];
+        for (int index = 0; index < ITEMS; index++) {
+            items[index] = new Book("Owner", "Title " + index, false);
+            warehouse.pack(items[index]);
+        }
+        assertEquals(ITEMS, warehouse.getOccupiedCapacity());
+        assertSame(items[PagedStore.PAGE_SIZE + 1],
+                warehouse.getElements().get(PagedStore.PAGE_SIZE + 1));
+
+        for (int index = 0; index < ITEMS; index++) {
+            assertSame(items[index], warehouse.unpack());
+        }
+        assertNull(warehouse.unpack());
+        assertEquals(0, warehouse.getOccupiedCapacity());
+    }
+
+    @Test
+    public void fillAndDrainRepeatedlyTest()
+            throws PackingException {
+        for (int round = 0; round < 3; round++) {
+            for (int count = 0; count < ITEMS; count++) {
+                warehouse.pack(count % 2 == 0 ? book : laptop);
+            }
+            // unpack half, so that the first pages are recycled
+            for (int count = 0; count < ITEMS / 2; count++) {
+                warehouse.unpack();
+            }
+            assertEquals(ITEMS - ITEMS / 2, warehouse.getOccupiedCapacity());
+            while (warehouse.unpack() != null) {
+                // drain the warehouse
+            }
+            assertEquals(0, warehouse.getOccupiedCapacity());
+            assertEquals(0.0, warehouse.getTotalItemsVolume(), 0.001);
+        }
+    }
+
+    @Test
+    public void getElementsOfTypeTest()
+            throws PackingException {
+        for (int count = 0; count < ITEMS; count++) {
+            warehouse.pack(count % 3 == 0 ? laptop : book);
+        }
+        warehouse.pack(chair);
+
+        assertEquals((ITEMS + 2) / 3,
+                warehouse.getElementsOfType(Laptop.class).size());
+        assertEquals("[Furniture (CHAIR)]",
+                warehouse.getElementsOfType(chair).toString());
+    }
+
+    @Test
+    public void getTotalItemsVolumeTest()
+            throws PackingException {
+        for (int count = 0; count < ITEMS; count++) {
+            warehouse.pack(book);
+        }
+        warehouse.pack(chair);
+        // a book is 20 * 20 * 5 cm and a chair is 50 * 150 * 50 cm
+        assertEquals(ITEMS * 2000.0 + 375000.0,
+                warehouse.getTotalItemsVolume(), 0.001);
+    }
+
+    @Test
+    public void getVolumeOfNextTest()
+            throws PackingException {
+        warehouse.pack(chair);
+        for (int count = 0; count < ITEMS; count++) {
+            warehouse.pack(book);
+        }
+        // skip part of the first page
+        for (int count = 0; count < 10; count++) {
+            warehouse.unpack();
+        }
+        assertEquals(0.0, warehouse.getVolumeOfNext(0), 0.001);
+        assertEquals(5 * 2000.0, warehouse.getVolumeOfNext(5), 0.001);
+        assertEquals((ITEMS - 9) * 2000.0,
+                warehouse.getVolumeOfNext(ITEMS - 9), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getVolumeOfNextMoreThanOccupiedTest()
+            throws PackingException {
+        warehouse.pack(book);
+        warehouse.getVolumeOfNext(2);
+    }
+
+    @Test
+    public void toStringTest()
+            throws PackingException {
+        warehouse.pack(book);
+        assertEquals("Warehouse (1/2000000)", warehouse.toString());
+    }
+}
\ No newline at end of file